@@ -0,0 +1,58 @@
+package com.tyleryates.benchmarks;
+
+import com.tyleryates.util.CountingMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CountingMap#incrementCount(Object)} while filling an empty map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountingMapIncrementBenchmark {
+
+    private static final int INCREMENTS = 1 << 16;
+
+    @Param({"HASH", "OPEN_HASH", "BUCKET", "CONCURRENT"})
+    private CountingMapType mapType;
+
+    @Param({"UNIFORM", "ZIPF"})
+    private KeyDistribution distribution;
+
+    @Param({"1000", "100000"})
+    private int keyCount;
+
+    private Integer[] keys;
+
+    @Setup
+    public void setup() {
+        keys = distribution.generateBoxed(INCREMENTS, keyCount, 42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INCREMENTS)
+    public CountingMap<Integer> incrementCount() {
+        final CountingMap<Integer> countingMap = mapType.create();
+        for (final Integer key : keys) {
+            countingMap.incrementCount(key);
+        }
+        return countingMap;
+    }
+}
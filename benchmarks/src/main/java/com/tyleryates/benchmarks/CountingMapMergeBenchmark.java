@@ -0,0 +1,58 @@
+package com.tyleryates.benchmarks;
+
+import com.tyleryates.util.CountingMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CountingMap#mergeCounts(CountingMap)} by merging two large maps into an empty one, which covers both
+ * the copy into an empty map and the merge of overlapping keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountingMapMergeBenchmark {
+
+    private static final int INCREMENTS = 1 << 20;
+
+    @Param({"HASH", "OPEN_HASH", "BUCKET"})
+    private CountingMapType mapType;
+
+    @Param({"100000"})
+    private int keyCount;
+
+    private CountingMap<Integer> left;
+    private CountingMap<Integer> right;
+
+    @Setup
+    public void setup() {
+        left = mapType.create();
+        left.incrementCounts(Arrays.asList(KeyDistribution.ZIPF.generateBoxed(INCREMENTS, keyCount, 1)));
+        right = mapType.create();
+        right.incrementCounts(Arrays.asList(KeyDistribution.ZIPF.generateBoxed(INCREMENTS, keyCount, 2)));
+    }
+
+    @Benchmark
+    public CountingMap<Integer> mergeCounts() {
+        final CountingMap<Integer> merged = mapType.create();
+        merged.mergeCounts(left);
+        merged.mergeCounts(right);
+        return merged;
+    }
+}
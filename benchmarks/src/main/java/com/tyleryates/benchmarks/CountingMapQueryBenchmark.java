@@ -0,0 +1,80 @@
+package com.tyleryates.benchmarks;
+
+import com.google.common.base.Optional;
+import com.tyleryates.util.CountingMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extremum and ranked queries of a {@link CountingMap} that has seen heavy churn, both on their own and
+ * interleaved with the increments that invalidate cached extrema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountingMapQueryBenchmark {
+
+    private static final int CHURN = 1 << 20;
+
+    @Param({"HASH", "OPEN_HASH", "BUCKET"})
+    private CountingMapType mapType;
+
+    @Param({"10000"})
+    private int keyCount;
+
+    private CountingMap<Integer> countingMap;
+    private Integer[] keys;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        keys = KeyDistribution.ZIPF.generateBoxed(CHURN, keyCount, 42);
+        countingMap = mapType.create();
+        for (final Integer key : keys) {
+            countingMap.incrementCount(key);
+        }
+    }
+
+    @Benchmark
+    public Set<Integer> getKeysWithHighestCount() {
+        return countingMap.getKeysWithHighestCount();
+    }
+
+    @Benchmark
+    public Set<Integer> getKeysWithLowestCount() {
+        return countingMap.getKeysWithLowestCount();
+    }
+
+    @Benchmark
+    public List<Integer> topK() {
+        return countingMap.topK(10);
+    }
+
+    /**
+     * Increments a key and then asks for a key with the lowest count, which forces implementations that cache the
+     * lowest count to rebuild it whenever the increment moved the last key with that count.
+     */
+    @Benchmark
+    public Optional<Integer> incrementThenGetKeyWithLowestCount() {
+        countingMap.incrementCount(keys[next]);
+        next = (next + 1) & (CHURN - 1);
+        return countingMap.getKeyWithLowestCount();
+    }
+}
@@ -0,0 +1,39 @@
+package com.tyleryates.benchmarks;
+
+import com.tyleryates.util.BucketCountingMap;
+import com.tyleryates.util.ConcurrentCountingMap;
+import com.tyleryates.util.CountingMap;
+import com.tyleryates.util.HashCountingMap;
+import com.tyleryates.util.OpenHashCountingMap;
+
+/**
+ * The {@link CountingMap} implementations compared by the benchmarks.
+ */
+public enum CountingMapType {
+    HASH {
+        @Override
+        <T> CountingMap<T> create() {
+            return new HashCountingMap<>();
+        }
+    },
+    OPEN_HASH {
+        @Override
+        <T> CountingMap<T> create() {
+            return new OpenHashCountingMap<>();
+        }
+    },
+    BUCKET {
+        @Override
+        <T> CountingMap<T> create() {
+            return new BucketCountingMap<>();
+        }
+    },
+    CONCURRENT {
+        @Override
+        <T> CountingMap<T> create() {
+            return new ConcurrentCountingMap<>();
+        }
+    };
+
+    abstract <T> CountingMap<T> create();
+}
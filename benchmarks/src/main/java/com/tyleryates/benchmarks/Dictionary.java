@@ -0,0 +1,64 @@
+package com.tyleryates.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates pseudo-English words whose letters and lengths follow the frequencies of English text, so that the word
+ * benchmarks see realistic character distributions without shipping a dictionary file.
+ */
+final class Dictionary {
+
+    /**
+     * The relative frequency of each letter from 'a' to 'z' in English text, in hundredths of a percent.
+     */
+    private static final int[] LETTER_FREQUENCIES = {
+            817, 149, 278, 425, 1270, 223, 202, 609, 697, 15, 77, 403, 241,
+            675, 751, 193, 10, 599, 633, 906, 276, 98, 236, 15, 197, 7};
+
+    /**
+     * The relative frequency of each word length starting from one letter in an English dictionary.
+     */
+    private static final int[] LENGTH_FREQUENCIES = {
+            1, 5, 30, 60, 100, 130, 140, 135, 115, 90, 65, 45, 30, 18, 10};
+
+    private Dictionary() {
+    }
+
+    /**
+     * Returns the given number of words. The same seed always produces the same words.
+     */
+    static String[] words(int count, long seed) {
+        final Random random = new Random(seed);
+        final String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = word(pick(LENGTH_FREQUENCIES, random) + 1, random);
+        }
+        return words;
+    }
+
+    /**
+     * Returns a word with the given number of letters.
+     */
+    static String word(int length, Random random) {
+        final char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = (char) ('a' + pick(LETTER_FREQUENCIES, random));
+        }
+        return new String(letters);
+    }
+
+    private static int pick(int[] frequencies, Random random) {
+        int total = 0;
+        for (final int frequency : frequencies) {
+            total += frequency;
+        }
+        int target = random.nextInt(total);
+        for (int i = 0; i < frequencies.length; i++) {
+            target -= frequencies[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,96 @@
+package com.tyleryates.benchmarks;
+
+import com.tyleryates.util.Integers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Integers#randomInt(int, int)}, {@link Integers#randomInt(int, int, Random)} and {@link
+ * Integers#randomInt(int, int, SplittableRandom)} with several threads drawing numbers at once, comparing the default
+ * source of randomness with a shared and a per-thread {@link Random} and a per-thread {@link SplittableRandom}, as well
+ * as filling an array with {@link Integers#fillRandomInts(int[], int, int)} and classifying it with {@link
+ * Integers#count(int[], Integers.Property)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class IntegersBenchmark {
+
+    private static final int LOWER_BOUND = 0;
+    private static final int UPPER_BOUND = 1_000;
+    private static final int ARRAY_LENGTH = 1_024;
+
+    @State(Scope.Benchmark)
+    public static class SharedRandom {
+        private final Random random = new Random(42);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        private final Random random = new Random(42);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadSplittableRandom {
+        private final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadArray {
+        private final int[] array = new int[ARRAY_LENGTH];
+
+        public ThreadArray() {
+            Integers.fillRandomInts(array, Integer.MIN_VALUE, Integer.MAX_VALUE, new SplittableRandom(42));
+        }
+    }
+
+    @Benchmark
+    public int randomInt() {
+        return Integers.randomInt(LOWER_BOUND, UPPER_BOUND);
+    }
+
+    @Benchmark
+    public int randomIntWithSharedRandom(SharedRandom state) {
+        return Integers.randomInt(LOWER_BOUND, UPPER_BOUND, state.random);
+    }
+
+    @Benchmark
+    public int randomIntWithThreadRandom(ThreadRandom state) {
+        return Integers.randomInt(LOWER_BOUND, UPPER_BOUND, state.random);
+    }
+
+    @Benchmark
+    public int randomIntWithThreadSplittableRandom(ThreadSplittableRandom state) {
+        return Integers.randomInt(LOWER_BOUND, UPPER_BOUND, state.random);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ARRAY_LENGTH)
+    public int[] fillRandomInts(ThreadArray state) {
+        Integers.fillRandomInts(state.array, LOWER_BOUND, UPPER_BOUND);
+        return state.array;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ARRAY_LENGTH)
+    public int countOdd(ThreadArray state) {
+        return Integers.count(state.array, Integers.Property.ODD);
+    }
+}
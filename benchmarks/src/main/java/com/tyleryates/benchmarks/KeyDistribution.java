@@ -0,0 +1,67 @@
+package com.tyleryates.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The distributions that benchmark keys are drawn from.
+ */
+public enum KeyDistribution {
+    /**
+     * Every key is equally likely.
+     */
+    UNIFORM {
+        @Override
+        int[] generate(int length, int keyCount, long seed) {
+            final Random random = new Random(seed);
+            final int[] keys = new int[length];
+            for (int i = 0; i < length; i++) {
+                keys[i] = random.nextInt(keyCount);
+            }
+            return keys;
+        }
+    },
+
+    /**
+     * The key of rank {@code r} is drawn with probability proportional to {@code 1 / r}, so a few hot keys account for
+     * most of the counts, as with words in text or requests per user.
+     */
+    ZIPF {
+        @Override
+        int[] generate(int length, int keyCount, long seed) {
+            final double[] cumulative = new double[keyCount];
+            double sum = 0;
+            for (int rank = 1; rank <= keyCount; rank++) {
+                sum += 1.0 / rank;
+                cumulative[rank - 1] = sum;
+            }
+
+            final Random random = new Random(seed);
+            final int[] keys = new int[length];
+            for (int i = 0; i < length; i++) {
+                final int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                keys[i] = Math.min(index < 0 ? -index - 1 : index, keyCount - 1);
+            }
+            return keys;
+        }
+    };
+
+    /**
+     * Returns {@code length} keys between {@code 0} (inclusive) and {@code keyCount} (exclusive) drawn from this
+     * distribution. The same seed always produces the same keys.
+     */
+    abstract int[] generate(int length, int keyCount, long seed);
+
+    /**
+     * Returns the keys of {@link #generate(int, int, long)} boxed up front, so that benchmarks measure the map rather
+     * than {@link Integer#valueOf(int)}.
+     */
+    Integer[] generateBoxed(int length, int keyCount, long seed) {
+        final int[] keys = generate(length, keyCount, seed);
+        final Integer[] boxed = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            boxed[i] = keys[i];
+        }
+        return boxed;
+    }
+}
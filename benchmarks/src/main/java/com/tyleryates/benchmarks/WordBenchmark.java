@@ -0,0 +1,100 @@
+package com.tyleryates.benchmarks;
+
+import com.tyleryates.util.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Word} construction, both directly and through {@link Word#of(String)}, and the {@link
+ * Word#canMake(String)}, {@link Word#canMake(Word)} and {@link Word#filterMakeable(List)} checks of a word game:
+ * whether each word of a dictionary can be made from a rack of letters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordBenchmark {
+
+    private static final int DICTIONARY_SIZE = 10_000;
+    private static final int RACK_LENGTH = 15;
+
+    private String[] strings;
+    private Word[] words;
+    private List<Word> wordList;
+    private Word rack;
+
+    @Setup
+    public void setup() {
+        strings = Dictionary.words(DICTIONARY_SIZE, 42);
+        words = new Word[DICTIONARY_SIZE];
+        for (int i = 0; i < DICTIONARY_SIZE; i++) {
+            words[i] = new Word(strings[i]);
+        }
+        wordList = Arrays.asList(words);
+        rack = new Word(Dictionary.word(RACK_LENGTH, new Random(7)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DICTIONARY_SIZE)
+    public void construct(Blackhole blackhole) {
+        for (final String string : strings) {
+            blackhole.consume(new Word(string));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DICTIONARY_SIZE)
+    public void intern(Blackhole blackhole) {
+        for (final String string : strings) {
+            blackhole.consume(Word.of(string));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DICTIONARY_SIZE)
+    public int canMakeString() {
+        int makeable = 0;
+        for (final String string : strings) {
+            if (rack.canMake(string)) {
+                makeable++;
+            }
+        }
+        return makeable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DICTIONARY_SIZE)
+    public int canMakeWord() {
+        int makeable = 0;
+        for (final Word word : words) {
+            if (rack.canMake(word)) {
+                makeable++;
+            }
+        }
+        return makeable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DICTIONARY_SIZE)
+    public int filterMakeable() {
+        return rack.filterMakeable(wordList).cardinality();
+    }
+}
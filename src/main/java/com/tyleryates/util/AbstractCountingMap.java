@@ -0,0 +1,246 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Provides a skeletal implementation of {@link CountingMap} to minimize the effort required to implement the
+ * interface.
+ * <p/>
+ * Subclasses must implement {@link #incrementCount(Object, int)} and the query methods that depend on how counts are
+ * stored. The remaining methods are implemented in terms of those and may be overridden if the subclass can provide a
+ * more efficient implementation. {@link #mergeCounts(CountingMap)} and {@link #subsumes(CountingMap)} visit the other
+ * map through {@link CountingMap#forEachCount(java.util.function.ObjIntConsumer)} rather than copying it, and {@link
+ * #subsumes(CountingMap)} stops at the first key that fails when the other map can stop iterating early. The ranked
+ * queries {@link #topK(int)}, {@link #bottomK(int)}, and {@link #getRank(Object)} are implemented by scanning every
+ * key without copying the map, with {@link #topK(int)} and {@link #bottomK(int)} keeping only {@code k} keys in a
+ * bounded heap.
+ *
+ * @param <T> the type of key used by the map
+ */
+public abstract class AbstractCountingMap<T> implements CountingMap<T> {
+
+    @Override
+    public int incrementCount(T key) {
+        return incrementCount(key, 1);
+    }
+
+    @Override
+    public void incrementCounts(Iterable<T> keys) {
+        for (final T key : keys) {
+            incrementCount(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation always throws an {@link UnsupportedOperationException}.
+     */
+    @Override
+    public int decrementCount(T key, int countsToRemove) throws IllegalArgumentException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation always throws an {@link UnsupportedOperationException}.
+     */
+    @Override
+    public int remove(T key) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation calls {@link #incrementCount(Object, int)} or {@link #decrementCount(Object, int)} with the
+     * difference between the current and the new count, and does nothing if the counts are the same.
+     */
+    @Override
+    public int setCount(T key, int count) throws IllegalArgumentException {
+        checkArgument(count >= 0);
+
+        final int currentCount = getCount(key);
+        if (count < currentCount) {
+            decrementCount(key, currentCount - count);
+        } else if (count > currentCount) {
+            incrementCount(key, count - currentCount);
+        }
+        return currentCount;
+    }
+
+    @Override
+    public void mergeCounts(CountingMap<T> otherCounts) {
+        otherCounts.forEachCount(this::incrementCount);
+    }
+
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        final Set<T> keys = getKeysWithHighestCount();
+        if (keys.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(keys.iterator().next());
+    }
+
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        final Set<T> keys = getKeysWithLowestCount();
+        if (keys.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(keys.iterator().next());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation visits every key with {@link #forEachCount(java.util.function.ObjIntConsumer)} and keeps the
+     * {@code k} highest counts seen so far in a heap, so it takes {@code O(n log k)} time and {@code O(k)} extra space.
+     * Keys with equal counts are returned in the order in which they were visited.
+     */
+    @Override
+    public List<T> topK(int k) throws IllegalArgumentException {
+        return selectK(k, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation visits every key with {@link #forEachCount(java.util.function.ObjIntConsumer)} and keeps the
+     * {@code k} lowest counts seen so far in a heap, so it takes {@code O(n log k)} time and {@code O(k)} extra space.
+     * Keys with equal counts are returned in the order in which they were visited.
+     */
+    @Override
+    public List<T> bottomK(int k) throws IllegalArgumentException {
+        return selectK(k, false);
+    }
+
+    @Override
+    public int getRank(T key) {
+        if (!containsKey(key)) {
+            return 0;
+        }
+        final int count = getCount(key);
+        final int[] rank = {1};
+        forEachCount((otherKey, otherCount) -> {
+            if (otherCount > count) {
+                rank[0]++;
+            }
+        });
+        return rank[0];
+    }
+
+    /**
+     * Returns up to {@code k} keys with the highest or lowest counts, ordered from the best to the worst. The heap
+     * holds the worst of the keys kept so far at its head, so each visited key is compared with it and only replaces it
+     * if its count is strictly better, which keeps earlier keys ahead of later keys with the same count.
+     */
+    private List<T> selectK(int k, boolean highest) {
+        checkArgument(k >= 0);
+        if (k == 0) {
+            return ImmutableList.of();
+        }
+
+        final PriorityQueue<RankedKey<T>> heap =
+                new PriorityQueue<>(Math.max(1, Math.min(k, size())), RankedKey.<T>worstFirst(highest));
+        final int[] order = {0};
+        forEachCount((key, count) -> {
+            if (heap.size() < k) {
+                heap.add(new RankedKey<>(key, count, order[0]));
+            } else if (highest ? count > heap.peek().count : count < heap.peek().count) {
+                heap.poll();
+                heap.add(new RankedKey<>(key, count, order[0]));
+            }
+            order[0]++;
+        });
+
+        final List<T> keys = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            keys.add(heap.poll().key);
+        }
+        return ImmutableList.copyOf(keys).reverse();
+    }
+
+    /**
+     * Returns whether the given predicate holds for every key in the map along with its occurrence count, stopping at
+     * the first key for which it does not. The map must not be modified by the predicate.
+     * <p/>
+     * This implementation visits the keys with {@link #forEachCount(java.util.function.ObjIntConsumer)}, which cannot
+     * stop early, so it only skips the predicate after the first failure. Subclasses that can stop iterating should
+     * override it.
+     *
+     * @param predicate the predicate to test each key and occurrence count with
+     *
+     * @return {@code true} if every key matches the predicate or the map is empty, {@code false} otherwise
+     */
+    boolean allCountsMatch(ObjIntPredicate<? super T> predicate) {
+        final boolean[] matched = {true};
+        forEachCount((key, count) -> {
+            if (matched[0] && !predicate.test(key, count)) {
+                matched[0] = false;
+            }
+        });
+        return matched[0];
+    }
+
+    @Override
+    public boolean subsumes(CountingMap<T> other) {
+        if (other instanceof AbstractCountingMap) {
+            return ((AbstractCountingMap<T>) other).allCountsMatch((key, count) -> count <= getCount(key));
+        }
+
+        final boolean[] subsumed = {true};
+        other.forEachCount((key, count) -> {
+            if (subsumed[0] && count > getCount(key)) {
+                subsumed[0] = false;
+            }
+        });
+        return subsumed[0];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * A key kept by {@link #selectK(int, boolean)} along with its count and the order in which it was visited.
+     */
+    private static final class RankedKey<T> {
+
+        private final T key;
+        private final int count;
+        private final int order;
+
+        RankedKey(T key, int count, int order) {
+            this.key = key;
+            this.count = count;
+            this.order = order;
+        }
+
+        /**
+         * Returns a comparator that puts the worst key first: the key with the lowest count when selecting the highest
+         * counts and the key with the highest count otherwise, with ties going to the key visited last.
+         */
+        static <T> Comparator<RankedKey<T>> worstFirst(boolean highest) {
+            return (left, right) -> {
+                final int byCount = Integer.compare(left.count, right.count);
+                if (byCount != 0) {
+                    return highest ? byCount : -byCount;
+                }
+                return Integer.compare(right.order, left.order);
+            };
+        }
+    }
+}
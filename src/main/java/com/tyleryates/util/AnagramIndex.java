@@ -0,0 +1,93 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Groups strings into classes of anagrams so that every anagram of a word can be looked up in constant time.
+ * <p/>
+ * Each string is filed under its {@linkplain Word#getSignature() signature}, the string of its characters in
+ * ascending order, which all anagrams share. The index is built in a single pass over the strings, and looking up the
+ * anagrams of a word is a single hash lookup of its signature.
+ * <p/>
+ * Instances of this class are immutable and may be shared between threads.
+ */
+public final class AnagramIndex {
+
+    private final ImmutableListMultimap<String, String> stringsBySignature;
+
+    /**
+     * Creates an index of the given strings. Strings that appear more than once are kept once for each appearance.
+     *
+     * @param strings the strings to index
+     *
+     * @throws IllegalArgumentException if {@code strings} is {@code null} or contains {@code null}
+     */
+    public AnagramIndex(Iterable<String> strings) {
+        checkArgument(strings != null);
+
+        final ImmutableListMultimap.Builder<String, String> builder = ImmutableListMultimap.builder();
+        for (final String string : strings) {
+            checkArgument(string != null);
+            builder.put(CharacterHistogram.of(string).toSortedString(), string);
+        }
+        stringsBySignature = builder.build();
+    }
+
+    /**
+     * Returns every indexed string that is an anagram of the given string, including the string itself if it was
+     * indexed, in the order they were indexed.
+     *
+     * @param string the given string
+     *
+     * @return the indexed anagrams of the given string
+     *
+     * @throws IllegalArgumentException if {@code string} is {@code null}
+     */
+    public List<String> getAnagrams(String string) {
+        checkArgument(string != null);
+        return stringsBySignature.get(CharacterHistogram.of(string).toSortedString());
+    }
+
+    /**
+     * See {@link #getAnagrams(String)}.
+     *
+     * @param word the given word
+     *
+     * @return the indexed anagrams of the given word
+     *
+     * @throws IllegalArgumentException if {@code word} is {@code null}
+     */
+    public List<String> getAnagrams(Word word) {
+        checkArgument(word != null);
+        return stringsBySignature.get(word.getSignature());
+    }
+
+    /**
+     * Returns the classes of anagrams in the index. Each class holds the strings that are anagrams of each other in the
+     * order they were indexed.
+     *
+     * @return the anagram classes of the indexed strings
+     */
+    public List<List<String>> getAnagramClasses() {
+        final ImmutableList.Builder<List<String>> classes = ImmutableList.builder();
+        for (final Collection<String> anagramClass : stringsBySignature.asMap().values()) {
+            classes.add((List<String>) anagramClass);
+        }
+        return classes.build();
+    }
+
+    /**
+     * Returns the number of strings in the index.
+     *
+     * @return the number of indexed strings
+     */
+    public int size() {
+        return stringsBySignature.size();
+    }
+}
@@ -0,0 +1,420 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link CountingMap} by grouping keys into buckets of equal count.
+ * <p/>
+ * The buckets form a doubly linked list ordered by count, and the keys within a bucket form their own doubly linked
+ * list. The bucket at the head of the list always holds the keys with the lowest count and the bucket at the tail
+ * always holds the keys with the highest count, so neither extremum ever needs to be recomputed by scanning the map.
+ * <p/>
+ * This class has worst-case constant-time performance for {@link #incrementCount(Object)}, {@link
+ * #containsKey(Object)}, {@link #getCount(Object)}, {@link #getKeyWithHighestCount()}, {@link
+ * #getKeyWithLowestCount()}, and {@link #size()} (apart from the hash lookup of the key itself). The {@link
+ * #getKeysWithHighestCount()} and {@link #getKeysWithLowestCount()} operations are linear in the number of keys
+ * returned. {@link #incrementCount(Object, int)} moves the key past every bucket whose count lies between the key's old
+ * and new count, so it is constant-time when few distinct counts lie in that range.
+ * <p/>
+ * Counts can also be lowered with {@link #decrementCount(Object, int)}, {@link #remove(Object)}, and {@link
+ * #setCount(Object, int)}, which keep the extrema exact in the same way.
+ * <p/>
+ * Counts never wrap around: an increment that would take a count past {@link Integer#MAX_VALUE} throws an {@link
+ * ArithmeticException} instead, since a negative count would break the order of the buckets.
+ * <p/>
+ * Because the buckets are kept in order, the ranked queries are answered without sorting: {@link #topK(int)} and
+ * {@link #bottomK(int)} are linear in {@code k}, and {@link #getRank(Object)} is linear in the number of distinct
+ * counts higher than the count of the given key.
+ * <p/>
+ * This map does not permit {@code null} keys.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class BucketCountingMap<T> extends AbstractCountingMap<T> {
+
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+    private Bucket<T> lowestBucket = null;
+    private Bucket<T> highestBucket = null;
+
+    /**
+     * Creates an empty counting map.
+     */
+    public BucketCountingMap() {
+    }
+
+    /**
+     * Creates a counting map with initial occurrence counts based on the given iterable.
+     *
+     * @param keys the given iterable
+     *
+     * @throws IllegalArgumentException if {@code keys} contains {@code null}
+     */
+    public BucketCountingMap(Iterable<T> keys) {
+        incrementCounts(keys);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative or {@code key} is {@code null}
+     * @throws ArithmeticException if the new count would exceed {@link Integer#MAX_VALUE}, in which case the count is
+     * left unchanged
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+
+        Node<T> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+            moveToBucket(node, null, countsToAdd);
+            return countsToAdd;
+        }
+        if (countsToAdd == 0) {
+            return node.bucket.count;
+        }
+
+        final Bucket<T> oldBucket = node.bucket;
+        // A count that wrapped around to a negative number would be put ahead of every bucket and break the ordering
+        final int newCount = Math.addExact(oldBucket.count, countsToAdd);
+        oldBucket.remove(node);
+        moveToBucket(node, oldBucket, newCount);
+        if (oldBucket.isEmpty()) {
+            unlink(oldBucket);
+        }
+        return newCount;
+    }
+
+    @Override
+    public int remove(T key) {
+        final Node<T> node = nodes.remove(key);
+        if (node == null) {
+            return 0;
+        }
+        final Bucket<T> bucket = node.bucket;
+        bucket.remove(node);
+        if (bucket.isEmpty()) {
+            unlink(bucket);
+        }
+        return bucket.count;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToRemove} is negative
+     */
+    @Override
+    public int decrementCount(T key, int countsToRemove) throws IllegalArgumentException {
+        checkArgument(countsToRemove >= 0);
+
+        final Node<T> node = nodes.get(key);
+        if (node == null) {
+            return 0;
+        }
+        final Bucket<T> oldBucket = node.bucket;
+        final int newCount = Math.max(0, oldBucket.count - countsToRemove);
+        if (newCount == oldBucket.count) {
+            return newCount;
+        }
+        if (newCount == 0) {
+            remove(key);
+            return 0;
+        }
+
+        oldBucket.remove(node);
+        moveToLowerBucket(node, oldBucket, newCount);
+        if (oldBucket.isEmpty()) {
+            unlink(oldBucket);
+        }
+        return newCount;
+    }
+
+    /**
+     * Places the given node into the bucket with the given count, creating the bucket if needed. The search for the
+     * bucket starts after the given bucket, or at the lowest bucket if the given bucket is {@code null}.
+     */
+    private void moveToBucket(Node<T> node, Bucket<T> start, int count) {
+        Bucket<T> previous = start;
+        Bucket<T> next = start == null ? lowestBucket : start.next;
+        while (next != null && next.count < count) {
+            previous = next;
+            next = next.next;
+        }
+
+        if (next != null && next.count == count) {
+            next.add(node);
+        } else {
+            insertBucket(previous, next, count).add(node);
+        }
+    }
+
+    /**
+     * Places the given node into the bucket with the given count, creating the bucket if needed. The search for the
+     * bucket starts before the given bucket and moves towards the lowest bucket.
+     */
+    private void moveToLowerBucket(Node<T> node, Bucket<T> start, int count) {
+        Bucket<T> previous = start.previous;
+        Bucket<T> next = start;
+        while (previous != null && previous.count > count) {
+            next = previous;
+            previous = previous.previous;
+        }
+
+        if (previous != null && previous.count == count) {
+            previous.add(node);
+        } else {
+            insertBucket(previous, next, count).add(node);
+        }
+    }
+
+    /**
+     * Creates a bucket with the given count and links it between the given buckets, either of which may be {@code
+     * null} at the ends of the list.
+     */
+    private Bucket<T> insertBucket(Bucket<T> previous, Bucket<T> next, int count) {
+        final Bucket<T> bucket = new Bucket<>(count);
+        bucket.previous = previous;
+        bucket.next = next;
+        if (previous == null) {
+            lowestBucket = bucket;
+        } else {
+            previous.next = bucket;
+        }
+        if (next == null) {
+            highestBucket = bucket;
+        } else {
+            next.previous = bucket;
+        }
+        return bucket;
+    }
+
+    private void unlink(Bucket<T> bucket) {
+        if (bucket.previous == null) {
+            lowestBucket = bucket.next;
+        } else {
+            bucket.previous.next = bucket.next;
+        }
+        if (bucket.next == null) {
+            highestBucket = bucket.previous;
+        } else {
+            bucket.next.previous = bucket.previous;
+        }
+        bucket.previous = null;
+        bucket.next = null;
+    }
+
+    @Override
+    public int getCount(T key) {
+        final Node<T> node = nodes.get(key);
+        if (node == null) {
+            return 0;
+        }
+        return node.bucket.count;
+    }
+
+    @Override
+    public Map<T, Integer> getCounts() {
+        final ImmutableMap.Builder<T, Integer> counts = ImmutableMap.builder();
+        for (final Map.Entry<T, Node<T>> entry : nodes.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().bucket.count);
+        }
+        return counts.build();
+    }
+
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        for (final Map.Entry<T, Node<T>> entry : nodes.entrySet()) {
+            action.accept(entry.getKey(), entry.getValue().bucket.count);
+        }
+    }
+
+    /**
+     * Performs the given action for each key in the map along with its occurrence count, in ascending order of count.
+     * Like {@link #forEachCount(ObjIntConsumer)}, this method walks the buckets in place and does not copy the map.
+     *
+     * @param action the action to perform for each key and occurrence count
+     */
+    void forEachCountAscending(ObjIntConsumer<? super T> action) {
+        for (Bucket<T> bucket = lowestBucket; bucket != null; bucket = bucket.next) {
+            for (Node<T> node = bucket.head; node != null; node = node.next) {
+                action.accept(node.key, bucket.count);
+            }
+        }
+    }
+
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        if (highestBucket == null) {
+            return Optional.absent();
+        }
+        return Optional.of(highestBucket.head.key);
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        if (highestBucket == null) {
+            return ImmutableSet.of();
+        }
+        return highestBucket.keys();
+    }
+
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        if (lowestBucket == null) {
+            return Optional.absent();
+        }
+        return Optional.of(lowestBucket.head.key);
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        if (lowestBucket == null) {
+            return ImmutableSet.of();
+        }
+        return lowestBucket.keys();
+    }
+
+    @Override
+    public List<T> topK(int k) throws IllegalArgumentException {
+        checkArgument(k >= 0);
+
+        final ImmutableList.Builder<T> keys = ImmutableList.builder();
+        int remaining = k;
+        for (Bucket<T> bucket = highestBucket; bucket != null && remaining > 0; bucket = bucket.previous) {
+            for (Node<T> node = bucket.head; node != null && remaining > 0; node = node.next) {
+                keys.add(node.key);
+                remaining--;
+            }
+        }
+        return keys.build();
+    }
+
+    @Override
+    public List<T> bottomK(int k) throws IllegalArgumentException {
+        checkArgument(k >= 0);
+
+        final ImmutableList.Builder<T> keys = ImmutableList.builder();
+        int remaining = k;
+        for (Bucket<T> bucket = lowestBucket; bucket != null && remaining > 0; bucket = bucket.next) {
+            for (Node<T> node = bucket.head; node != null && remaining > 0; node = node.next) {
+                keys.add(node.key);
+                remaining--;
+            }
+        }
+        return keys.build();
+    }
+
+    @Override
+    public int getRank(T key) {
+        final Node<T> node = nodes.get(key);
+        if (node == null) {
+            return 0;
+        }
+        int rank = 1;
+        for (Bucket<T> bucket = highestBucket; bucket != node.bucket; bucket = bucket.previous) {
+            rank += bucket.size;
+        }
+        return rank;
+    }
+
+    @Override
+    boolean allCountsMatch(ObjIntPredicate<? super T> predicate) {
+        for (final Map.Entry<T, Node<T>> entry : nodes.entrySet()) {
+            if (!predicate.test(entry.getKey(), entry.getValue().bucket.count)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     * A key in the map along with its position in the bucket that holds it.
+     */
+    private static final class Node<T> {
+        private final T key;
+        private Bucket<T> bucket;
+        private Node<T> previous;
+        private Node<T> next;
+
+        private Node(T key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * The set of keys that share the same count.
+     */
+    private static final class Bucket<T> {
+        private final int count;
+        private int size = 0;
+        private Node<T> head;
+        private Bucket<T> previous;
+        private Bucket<T> next;
+
+        private Bucket(int count) {
+            this.count = count;
+        }
+
+        private boolean isEmpty() {
+            return head == null;
+        }
+
+        private void add(Node<T> node) {
+            node.bucket = this;
+            node.previous = null;
+            node.next = head;
+            if (head != null) {
+                head.previous = node;
+            }
+            head = node;
+            size++;
+        }
+
+        private void remove(Node<T> node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next != null) {
+                node.next.previous = node.previous;
+            }
+            node.bucket = null;
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        private Set<T> keys() {
+            final ImmutableSet.Builder<T> keys = ImmutableSet.builder();
+            for (Node<T> node = head; node != null; node = node.next) {
+                keys.add(node.key);
+            }
+            return keys.build();
+        }
+    }
+}
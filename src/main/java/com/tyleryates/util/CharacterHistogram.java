@@ -0,0 +1,489 @@
+package com.tyleryates.util;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Counts the occurrences of each character in a string using primitive arrays.
+ * <p/>
+ * A histogram created by {@link #of(CharSequence)} counts each {@code char} of the string, so a surrogate pair counts
+ * as two unrelated halves. A histogram created by {@link #ofCodePoints(CharSequence)} counts each Unicode code point
+ * instead. The two are identical for strings without surrogates, which are therefore counted the same fast way in both
+ * modes; only strings with surrogates are decoded into code points.
+ * <p/>
+ * Most strings only use characters from a narrow range, such as lowercase ASCII letters, so the counts are normally
+ * kept in a dense {@code int[]} indexed by the distance of a character from the lowest character in the string. Only
+ * that array is allocated and no character or count is ever boxed. Strings whose characters span more than {@value
+ * #MAXIMUM_DENSE_RANGE} characters fall back to a sparse form that stores the distinct characters and their counts as
+ * sorted pairs in a single {@code int[]}.
+ * <p/>
+ * {@link #canMake(CharSequence)} checks a string against the histogram without building a histogram of the string,
+ * using a per-thread scratch copy of the counts, so checking many strings allocates nothing.
+ * <p/>
+ * Instances of this class are immutable.
+ */
+final class CharacterHistogram {
+
+    /**
+     * The widest range of characters, from lowest to highest, that is stored densely.
+     */
+    private static final int MAXIMUM_DENSE_RANGE = 256;
+
+    private static final CharacterHistogram EMPTY = new CharacterHistogram(0, new int[0], false, 0, 0L, false);
+
+    /**
+     * The scratch space that {@link #canMake(CharSequence)} counts down in, which grows to fit the largest histogram
+     * checked on each thread.
+     */
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[MAXIMUM_DENSE_RANGE]);
+
+    /**
+     * The lowest character in the string when the counts are dense.
+     */
+    private final int base;
+
+    /**
+     * Either the count of each character {@code base + i} at index {@code i}, or alternating characters and counts
+     * sorted by character when the counts are sparse.
+     */
+    private final int[] counts;
+    private final boolean sparse;
+
+    /**
+     * The total number of characters counted.
+     */
+    private final int length;
+
+    /**
+     * The bits of {@link #bitFor(int)} for every character counted.
+     */
+    private final long letterMask;
+
+    /**
+     * Whether any character counted is a supplementary code point, in which case strings are read as code points.
+     */
+    private final boolean supplementary;
+
+    private CharacterHistogram(int base, int[] counts, boolean sparse, int length, long letterMask,
+                               boolean supplementary) {
+        this.base = base;
+        this.counts = counts;
+        this.sparse = sparse;
+        this.length = length;
+        this.letterMask = letterMask;
+        this.supplementary = supplementary;
+    }
+
+    /**
+     * Returns the histogram of the {@code char} values in the given string.
+     */
+    static CharacterHistogram of(CharSequence string) {
+        return of(string, false);
+    }
+
+    /**
+     * Returns the histogram of the code points in the given string. Unpaired surrogates are counted as they are.
+     */
+    static CharacterHistogram ofCodePoints(CharSequence string) {
+        return of(string, true);
+    }
+
+    private static CharacterHistogram of(CharSequence string, boolean codePoints) {
+        final int length = string.length();
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        char lowest = Character.MAX_VALUE;
+        char highest = Character.MIN_VALUE;
+        long letterMask = 0L;
+        for (int i = 0; i < length; i++) {
+            final char ch = string.charAt(i);
+            if (codePoints && Character.isSurrogate(ch)) {
+                return codePointsOf(string);
+            }
+            letterMask |= bitFor(ch);
+            if (ch < lowest) {
+                lowest = ch;
+            }
+            if (ch > highest) {
+                highest = ch;
+            }
+        }
+        if (highest - lowest >= MAXIMUM_DENSE_RANGE) {
+            final int[] chars = new int[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = string.charAt(i);
+            }
+            return sparseOf(chars, length, letterMask);
+        }
+
+        final int[] counts = new int[highest - lowest + 1];
+        for (int i = 0; i < length; i++) {
+            counts[string.charAt(i) - lowest]++;
+        }
+        return new CharacterHistogram(lowest, counts, false, length, letterMask, false);
+    }
+
+    /**
+     * Returns the histogram of the code points in the given string, which contains at least one surrogate.
+     */
+    private static CharacterHistogram codePointsOf(CharSequence string) {
+        final int[] codePoints = new int[string.length()];
+        int length = 0;
+        int lowest = Character.MAX_CODE_POINT;
+        int highest = Character.MIN_CODE_POINT;
+        long letterMask = 0L;
+        int i = 0;
+        while (i < string.length()) {
+            final int codePoint = Character.codePointAt(string, i);
+            codePoints[length++] = codePoint;
+            letterMask |= bitFor(codePoint);
+            lowest = Math.min(lowest, codePoint);
+            highest = Math.max(highest, codePoint);
+            i += Character.charCount(codePoint);
+        }
+        if (highest - lowest >= MAXIMUM_DENSE_RANGE) {
+            return sparseOf(codePoints, length, letterMask);
+        }
+
+        final int[] counts = new int[highest - lowest + 1];
+        for (int j = 0; j < length; j++) {
+            counts[codePoints[j] - lowest]++;
+        }
+        return new CharacterHistogram(lowest, counts, false, length, letterMask,
+                highest >= Character.MIN_SUPPLEMENTARY_CODE_POINT);
+    }
+
+    /**
+     * Returns the sparse histogram of the first {@code length} characters of the given array, which is sorted in place.
+     */
+    private static CharacterHistogram sparseOf(int[] characters, int length, long letterMask) {
+        Arrays.sort(characters, 0, length);
+
+        int distinct = 1;
+        for (int i = 1; i < length; i++) {
+            if (characters[i] != characters[i - 1]) {
+                distinct++;
+            }
+        }
+        final int[] pairs = new int[distinct * 2];
+        int index = -2;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || characters[i] != characters[i - 1]) {
+                index += 2;
+                pairs[index] = characters[i];
+            }
+            pairs[index + 1]++;
+        }
+        return new CharacterHistogram(0, pairs, true, length, letterMask,
+                characters[length - 1] >= Character.MIN_SUPPLEMENTARY_CODE_POINT);
+    }
+
+    /**
+     * Returns the histogram of the first {@code size / 2} characters and counts in the given pairs, which are sorted by
+     * character and all have positive counts.
+     */
+    private static CharacterHistogram ofPairs(int[] pairs, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        final int lowest = pairs[0];
+        final int highest = pairs[size - 2];
+        int length = 0;
+        long letterMask = 0L;
+        for (int i = 0; i < size; i += 2) {
+            length += pairs[i + 1];
+            letterMask |= bitFor(pairs[i]);
+        }
+        final boolean supplementary = highest >= Character.MIN_SUPPLEMENTARY_CODE_POINT;
+        if (highest - lowest >= MAXIMUM_DENSE_RANGE) {
+            return new CharacterHistogram(0, Arrays.copyOf(pairs, size), true, length, letterMask, supplementary);
+        }
+
+        final int[] counts = new int[highest - lowest + 1];
+        for (int i = 0; i < size; i += 2) {
+            counts[pairs[i] - lowest] = pairs[i + 1];
+        }
+        return new CharacterHistogram(lowest, counts, false, length, letterMask, supplementary);
+    }
+
+    /**
+     * Returns the bit that marks the given character as present in a letter mask. Characters are folded onto the 64
+     * bits by their low six bits, which keeps {@code 'a'} to {@code 'z'} and {@code 'A'} to {@code 'Z'} on distinct
+     * bits. Characters that share a bit can only make a mask check pass, never fail, so the mask is a safe prefilter.
+     */
+    static long bitFor(int ch) {
+        return 1L << (ch & 63);
+    }
+
+    /**
+     * Returns the letter mask of the {@code char} values of the given string, with the {@linkplain #bitFor(int) bit}
+     * of each of them set. This matches the mask of {@link #of(CharSequence)}.
+     */
+    static long letterMaskOf(CharSequence string) {
+        long letterMask = 0L;
+        for (int i = 0; i < string.length(); i++) {
+            letterMask |= bitFor(string.charAt(i));
+        }
+        return letterMask;
+    }
+
+    /**
+     * Returns the letter mask of the code points of the given string, which matches the mask of {@link
+     * #ofCodePoints(CharSequence)}.
+     */
+    static long codePointLetterMaskOf(CharSequence string) {
+        long letterMask = 0L;
+        int i = 0;
+        while (i < string.length()) {
+            final int codePoint = Character.codePointAt(string, i);
+            letterMask |= bitFor(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return letterMask;
+    }
+
+    /**
+     * Returns the total number of characters counted.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the letter mask of the counted characters, with the {@linkplain #bitFor(int) bit} of each of them set.
+     */
+    long getLetterMask() {
+        return letterMask;
+    }
+
+    /**
+     * Returns the number of times the given character occurs, which is {@code 0} if it does not occur at all.
+     */
+    int getCount(int ch) {
+        final int index = indexOf(ch);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Returns the number of entries in {@link #counts}, which are read with {@link #characterAt(int)} and {@link
+     * #countAt(int)} in ascending order of character. Entries of a dense histogram may have a count of {@code 0}.
+     */
+    private int entryCount() {
+        return sparse ? counts.length / 2 : counts.length;
+    }
+
+    private int characterAt(int entry) {
+        return sparse ? counts[entry * 2] : base + entry;
+    }
+
+    private int countAt(int entry) {
+        return sparse ? counts[entry * 2 + 1] : counts[entry];
+    }
+
+    /**
+     * Returns the index in {@link #counts} that holds the count of the given character or {@code -1} if the character
+     * does not occur.
+     */
+    private int indexOf(int ch) {
+        if (!sparse) {
+            final int index = ch - base;
+            return index >= 0 && index < counts.length ? index : -1;
+        }
+
+        int low = 0;
+        int high = counts.length / 2 - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int middleChar = counts[middle * 2];
+            if (middleChar < ch) {
+                low = middle + 1;
+            } else if (middleChar > ch) {
+                high = middle - 1;
+            } else {
+                return middle * 2 + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether every character of the given string occurs at least as often in this histogram as in the string.
+     * This gives the same result as {@code subsumes(of(string))} but stops at the first character that runs out.
+     * <p/>
+     * The string is read as code points if this histogram counts supplementary code points and as {@code char} values
+     * otherwise. Either way, a surrogate pair in the string is never found in a histogram that does not count it.
+     */
+    boolean canMake(CharSequence string) {
+        final int stringLength = string.length();
+        if (!supplementary && stringLength > length) {
+            return false;
+        }
+
+        int[] remaining = SCRATCH.get();
+        if (remaining.length < counts.length) {
+            remaining = new int[counts.length];
+            SCRATCH.set(remaining);
+        }
+        System.arraycopy(counts, 0, remaining, 0, counts.length);
+
+        int i = 0;
+        while (i < stringLength) {
+            final int ch = supplementary ? Character.codePointAt(string, i) : string.charAt(i);
+            final int index = indexOf(ch);
+            if (index < 0 || --remaining[index] < 0) {
+                return false;
+            }
+            i += Character.charCount(ch);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the counted characters in ascending order, each repeated as many times as it occurs. Since the counts
+     * are already grouped by character, this is a counting sort and never compares characters.
+     */
+    String toSortedString() {
+        if (supplementary) {
+            final StringBuilder sorted = new StringBuilder(length * 2);
+            final int step = sparse ? 2 : 1;
+            for (int i = 0; i < counts.length; i += step) {
+                final int codePoint = sparse ? counts[i] : base + i;
+                for (int j = sparse ? counts[i + 1] : counts[i]; j > 0; j--) {
+                    sorted.appendCodePoint(codePoint);
+                }
+            }
+            return sorted.toString();
+        }
+
+        final char[] sorted = new char[length];
+        int position = 0;
+        if (sparse) {
+            for (int i = 0; i < counts.length; i += 2) {
+                Arrays.fill(sorted, position, position + counts[i + 1], (char) counts[i]);
+                position += counts[i + 1];
+            }
+        } else {
+            for (int i = 0; i < counts.length; i++) {
+                Arrays.fill(sorted, position, position + counts[i], (char) (base + i));
+                position += counts[i];
+            }
+        }
+        return new String(sorted);
+    }
+
+    /**
+     * Returns the number of characters of the given histogram that this histogram lacks, which is the sum over each
+     * character of how many more times it occurs in the given histogram than in this one. Counting stops as soon as
+     * the total exceeds {@code limit}, so the result is only exact when it is at most {@code limit}.
+     */
+    int countMissing(CharacterHistogram other, int limit) {
+        int missing = 0;
+        for (int i = 0; i < other.entryCount() && missing <= limit; i++) {
+            final int count = other.countAt(i);
+            if (count != 0) {
+                missing += Math.max(0, count - getCount(other.characterAt(i)));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the histogram of the characters that are left once the characters of the given histogram are taken
+     * away from this one, with each count floored at {@code 0}.
+     */
+    CharacterHistogram difference(CharacterHistogram other) {
+        return combine(other, (count, otherCount) -> Math.max(0, count - otherCount));
+    }
+
+    /**
+     * Returns the histogram that counts each character as many times as the larger of its two counts.
+     */
+    CharacterHistogram union(CharacterHistogram other) {
+        return combine(other, Math::max);
+    }
+
+    /**
+     * Returns the histogram that counts each character as many times as the smaller of its two counts.
+     */
+    CharacterHistogram intersection(CharacterHistogram other) {
+        return combine(other, Math::min);
+    }
+
+    /**
+     * Returns the histogram that counts each character as the given operator applied to its counts in this histogram
+     * and the given histogram. Both histograms are read in ascending order of character, so this is a single merge.
+     */
+    private CharacterHistogram combine(CharacterHistogram other, IntBinaryOperator operator) {
+        final int entries = entryCount();
+        final int otherEntries = other.entryCount();
+        final int[] pairs = new int[(entries + otherEntries) * 2];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < entries || j < otherEntries) {
+            final int ch = i < entries ? characterAt(i) : Integer.MAX_VALUE;
+            final int otherCh = j < otherEntries ? other.characterAt(j) : Integer.MAX_VALUE;
+            final int lowest = Math.min(ch, otherCh);
+            final int count = ch == lowest ? countAt(i++) : 0;
+            final int otherCount = otherCh == lowest ? other.countAt(j++) : 0;
+
+            final int combined = operator.applyAsInt(count, otherCount);
+            if (combined > 0) {
+                pairs[size++] = lowest;
+                pairs[size++] = combined;
+            }
+        }
+        return ofPairs(pairs, size);
+    }
+
+    /**
+     * Returns whether this histogram and the given histogram count exactly the same characters.
+     */
+    boolean hasSameCounts(CharacterHistogram other) {
+        return length == other.length && subsumes(other);
+    }
+
+    /**
+     * Returns whether every character of the given histogram occurs at least as often in this histogram.
+     */
+    boolean subsumes(CharacterHistogram other) {
+        // Most failures are a character this histogram lacks entirely, which the masks reveal in a single AND
+        if ((other.letterMask & ~letterMask) != 0 || other.length > length) {
+            return false;
+        }
+        if (other.sparse) {
+            for (int i = 0; i < other.counts.length; i += 2) {
+                if (other.counts[i + 1] > getCount(other.counts[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (sparse) {
+            for (int i = 0; i < other.counts.length; i++) {
+                final int count = other.counts[i];
+                if (count != 0 && count > getCount(other.base + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Both histograms are dense, so their arrays can be compared directly once they are aligned
+        final int offset = other.base - base;
+        for (int i = 0; i < other.counts.length; i++) {
+            final int count = other.counts[i];
+            if (count == 0) {
+                continue;
+            }
+            final int index = i + offset;
+            if (index < 0 || index >= counts.length || counts[index] < count) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
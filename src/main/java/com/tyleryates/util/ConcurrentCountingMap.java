@@ -0,0 +1,163 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link CountingMap} in a thread-safe manner.
+ * <p/>
+ * Each key owns a {@link LongAdder} stored in a {@link ConcurrentHashMap}, so writers incrementing different keys never
+ * contend on a shared lock, and writers incrementing the same hot key spread their updates over the adder's striped
+ * cells instead of all retrying on a single counter. No external synchronization is needed when calling {@link
+ * #incrementCount(Object)}, {@link #incrementCount(Object, int)}, {@link #incrementCounts(Iterable)}, or {@link
+ * #mergeCounts(CountingMap)} from multiple threads.
+ * <p/>
+ * The {@link #incrementCount(Object)}, {@link #incrementCount(Object, int)}, {@link #getCount(Object)}, {@link
+ * #containsKey(Object)}, and {@link #size()} operations have constant-time performance. Since an adder is summed when
+ * it is read, the count returned by {@link #incrementCount(Object, int)} includes the caller's own increment and may
+ * also include increments made concurrently by other threads. The highest-count and lowest-count queries as well as
+ * {@link #getCounts()} require a full scan of the map.
+ * <p/>
+ * Queries that look at more than one key are weakly consistent: each key's count is read at some point during the
+ * call, so while writers are active the result may mix counts from different moments and may or may not reflect
+ * increments that happen during the call. Because counts never decrease, a key returned by {@link
+ * #getKeyWithHighestCount()} or {@link #getKeysWithHighestCount()} had, at the moment it was read, a count at least as
+ * high as every count observed for the other keys. Likewise, a key returned by {@link #getKeyWithLowestCount()} or
+ * {@link #getKeysWithLowestCount()} had a count no higher than every count observed for the other keys, but keys that
+ * are added during the call may be missed, so the result need not be the lowest count at any single moment. A key is
+ * only published once its counter already holds its first increment, so no query observes a key at a count lower
+ * than the first increment of that key. When no writes happen concurrently with a query, the result is exact.
+ * <p/>
+ * This map does not permit {@code null} keys.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class ConcurrentCountingMap<T> extends AbstractCountingMap<T> {
+
+    private final ConcurrentMap<T, LongAdder> occurrences;
+
+    /**
+     * Creates an empty counting map.
+     */
+    public ConcurrentCountingMap() {
+        occurrences = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a counting map with initial occurrence counts based on the given iterable.
+     *
+     * @param keys the given iterable
+     *
+     * @throws IllegalArgumentException if {@code keys} contains {@code null}
+     */
+    public ConcurrentCountingMap(Iterable<T> keys) {
+        occurrences = new ConcurrentHashMap<>();
+        incrementCounts(keys);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative or {@code key} is {@code null}
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+
+        LongAdder count = occurrences.get(key);
+        if (count == null) {
+            // Publish the counter already holding the first increment, so that readers never see a key at zero
+            final LongAdder newCount = new LongAdder();
+            newCount.add(countsToAdd);
+            count = occurrences.putIfAbsent(key, newCount);
+            if (count == null) {
+                return countsToAdd;
+            }
+        }
+        count.add(countsToAdd);
+        return count.intValue();
+    }
+
+    @Override
+    public int getCount(T key) {
+        if (key == null) {
+            return 0;
+        }
+        final LongAdder count = occurrences.get(key);
+        if (count == null) {
+            return 0;
+        }
+        return count.intValue();
+    }
+
+    @Override
+    public Map<T, Integer> getCounts() {
+        final ImmutableMap.Builder<T, Integer> counts = ImmutableMap.builder();
+        for (final Map.Entry<T, LongAdder> entry : occurrences.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().intValue());
+        }
+        return counts.build();
+    }
+
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        for (final Map.Entry<T, LongAdder> entry : occurrences.entrySet()) {
+            action.accept(entry.getKey(), entry.getValue().intValue());
+        }
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        int highestCount = Integer.MIN_VALUE;
+        final Set<T> keysWithHighestCount = new HashSet<>();
+        for (final Map.Entry<T, LongAdder> entry : occurrences.entrySet()) {
+            final int count = entry.getValue().intValue();
+            if (count > highestCount) {
+                highestCount = count;
+                keysWithHighestCount.clear();
+                keysWithHighestCount.add(entry.getKey());
+            } else if (count == highestCount) {
+                keysWithHighestCount.add(entry.getKey());
+            }
+        }
+        return ImmutableSet.copyOf(keysWithHighestCount);
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        int lowestCount = Integer.MAX_VALUE;
+        final Set<T> keysWithLowestCount = new HashSet<>();
+        for (final Map.Entry<T, LongAdder> entry : occurrences.entrySet()) {
+            final int count = entry.getValue().intValue();
+            if (count < lowestCount) {
+                lowestCount = count;
+                keysWithLowestCount.clear();
+                keysWithLowestCount.add(entry.getKey());
+            } else if (count == lowestCount) {
+                keysWithLowestCount.add(entry.getKey());
+            }
+        }
+        return ImmutableSet.copyOf(keysWithLowestCount);
+    }
+
+    @Override
+    public int size() {
+        return occurrences.size();
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        return key != null && occurrences.containsKey(key);
+    }
+}
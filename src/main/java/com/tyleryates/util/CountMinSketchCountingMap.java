@@ -0,0 +1,322 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link CountingMap} approximately using a Count-Min Sketch.
+ * <p/>
+ * The sketch is a fixed table of {@code depth} rows of {@code width} counters. Each key is hashed to one counter per
+ * row, and the estimated count of a key is the minimum of its counters. The memory footprint is fixed when the sketch
+ * is created and does not grow with the number of distinct keys, which makes this class suitable for streams with
+ * unbounded key cardinality.
+ * <p/>
+ * For a sketch created with error factor {@code epsilon} and failure probability {@code delta}, the count returned by
+ * {@link #getCount(Object)} is never lower than the true count and, with probability at least {@code 1 - delta},
+ * exceeds the true count by at most {@code epsilon} times {@link #getTotalCount()}. With conservative update enabled,
+ * an increment only raises the counters that are below the key's new estimate, which keeps the same guarantee while
+ * noticeably reducing over-estimation.
+ * <p/>
+ * Counters are {@code int} values that saturate at {@link Integer#MAX_VALUE} instead of wrapping around, so the
+ * estimate for a key stops growing once all of its counters reach that value, while {@link #getTotalCount()} keeps the
+ * exact sum as a {@code long}.
+ * <p/>
+ * Because keys themselves are not stored, only some of the {@link CountingMap} operations are supported:
+ * <ul>
+ * <li>{@link #incrementCount(Object)}, {@link #incrementCount(Object, int)}, {@link #incrementCounts(Iterable)}, and
+ * {@link #isEmpty()} are exact.</li>
+ * <li>{@link #getCount(Object)}, {@link #containsKey(Object)}, and {@link #subsumes(CountingMap)} are approximate and
+ * may over-estimate. The return value of {@link #incrementCount(Object, int)} is the new estimated count.</li>
+ * <li>{@link #mergeCounts(CountingMap)} is exact when the given map is a sketch of the same shape and otherwise adds
+ * every key of the given map to the current sketch.</li>
+ * <li>{@link #getCounts()}, {@link #forEachCount(ObjIntConsumer)}, {@link #size()}, and every highest-count,
+ * lowest-count, and ranked query throw {@link UnsupportedOperationException}.</li>
+ * <li>{@link #decrementCount(Object, int)}, {@link #remove(Object)}, and {@link #setCount(Object, int)} throw {@link
+ * UnsupportedOperationException}, since a sketch cell is shared by many keys.</li>
+ * </ul>
+ *
+ * @param <T> the type of key used by the map
+ */
+public class CountMinSketchCountingMap<T> extends AbstractCountingMap<T> {
+
+    /**
+     * The most counters a sketch can have, which is the largest array most virtual machines can allocate.
+     */
+    static final int MAXIMUM_COUNTERS = Integer.MAX_VALUE - 8;
+
+    private final int width;
+    private final int depth;
+    private final boolean conservativeUpdate;
+    private final int[] table;
+    private long totalCount = 0;
+
+    /**
+     * Creates an empty sketch with the given error bounds that uses conservative update.
+     *
+     * @param epsilon the error factor relative to the total count, in {@code (0, 1)}
+     * @param delta the probability of exceeding the error bound, in {@code (0, 1)}
+     *
+     * @throws IllegalArgumentException if {@code epsilon} or {@code delta} is not in {@code (0, 1)}, or if the sketch
+     * would need more than {@value #MAXIMUM_COUNTERS} counters
+     */
+    public CountMinSketchCountingMap(double epsilon, double delta) {
+        this(epsilon, delta, true);
+    }
+
+    /**
+     * Creates an empty sketch with the given error bounds.
+     *
+     * @param epsilon the error factor relative to the total count, in {@code (0, 1)}
+     * @param delta the probability of exceeding the error bound, in {@code (0, 1)}
+     * @param conservativeUpdate whether increments should only raise the counters that are below the new estimate
+     *
+     * @throws IllegalArgumentException if {@code epsilon} or {@code delta} is not in {@code (0, 1)}, or if the sketch
+     * would need more than {@value #MAXIMUM_COUNTERS} counters
+     */
+    public CountMinSketchCountingMap(double epsilon, double delta, boolean conservativeUpdate) {
+        checkArgument(epsilon > 0 && epsilon < 1);
+        checkArgument(delta > 0 && delta < 1);
+
+        // Both dimensions are computed as longs so that a tiny epsilon cannot saturate the width or overflow the size
+        final long width = (long) Math.ceil(Math.E / epsilon);
+        final long depth = (long) Math.ceil(Math.log(1 / delta));
+        checkArgument(width * depth <= MAXIMUM_COUNTERS,
+                "A sketch with epsilon %s and delta %s needs %s x %s counters, more than the maximum of %s",
+                epsilon, delta, width, depth, MAXIMUM_COUNTERS);
+
+        this.width = (int) width;
+        this.depth = (int) depth;
+        this.conservativeUpdate = conservativeUpdate;
+        this.table = new int[this.width * this.depth];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned count is an estimate that may be higher than the true count.
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+
+        final int hash1 = hash1(key);
+        final int hash2 = hash2(hash1);
+        totalCount += countsToAdd;
+
+        if (conservativeUpdate) {
+            final int newEstimate = OverflowPolicy.SATURATE.add(estimate(hash1, hash2), countsToAdd);
+            for (int row = 0; row < depth; row++) {
+                final int index = index(row, hash1, hash2);
+                if (table[index] < newEstimate) {
+                    table[index] = newEstimate;
+                }
+            }
+            return newEstimate;
+        }
+
+        int newEstimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            final int index = index(row, hash1, hash2);
+            table[index] = OverflowPolicy.SATURATE.add(table[index], countsToAdd);
+            newEstimate = Math.min(newEstimate, table[index]);
+        }
+        return newEstimate;
+    }
+
+    @Override
+    public void mergeCounts(CountingMap<T> otherCounts) {
+        if (!(otherCounts instanceof CountMinSketchCountingMap)) {
+            super.mergeCounts(otherCounts);
+            return;
+        }
+
+        final CountMinSketchCountingMap<?> other = (CountMinSketchCountingMap<?>) otherCounts;
+        checkArgument(other.width == width && other.depth == depth, "Sketches must have the same shape");
+        for (int i = 0; i < table.length; i++) {
+            table[i] = OverflowPolicy.SATURATE.add(table[i], other.table[i]);
+        }
+        totalCount += other.totalCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned count is an estimate that may be higher than the true count.
+     */
+    @Override
+    public int getCount(T key) {
+        final int hash1 = hash1(key);
+        return estimate(hash1, hash2(hash1));
+    }
+
+    private int estimate(int hash1, int hash2) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table[index(row, hash1, hash2)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the index in {@link #table} of the counter for the given row. The row hashes are derived from two
+     * independent mixes of the key's hash code, so every sketch with the same shape maps a key to the same counters and
+     * sketches can be merged.
+     */
+    private int index(int row, int hash1, int hash2) {
+        return row * width + ((hash1 + row * hash2) & Integer.MAX_VALUE) % width;
+    }
+
+    private static int hash1(Object key) {
+        return mix(key == null ? 0 : key.hashCode());
+    }
+
+    private static int hash2(int hash1) {
+        return mix(hash1 ^ 0x5BD1E995) | 1;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0xCC9E2D51;
+        h = Integer.rotateLeft(h, 15) * 0x1B873593;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    /**
+     * Returns the number of counters in each row of the sketch.
+     *
+     * @return the width of the sketch
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows in the sketch.
+     *
+     * @return the depth of the sketch
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the sum of every count added to the sketch.
+     *
+     * @return the total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the count of a key is only an estimate.
+     */
+    @Override
+    public int setCount(T key, int count) {
+        throw new UnsupportedOperationException("A count-min sketch cannot set the count of a key");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public Map<T, Integer> getCounts() {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public List<T> topK(int k) {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public List<T> bottomK(int k) {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public int getRank(T key) {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    /**
+     * Always throws {@link UnsupportedOperationException} as the sketch does not store keys.
+     */
+    @Override
+    public int size() {
+        throw new UnsupportedOperationException("A count-min sketch cannot enumerate its keys");
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * As the estimated count may be higher than the true count, this method may return {@code true} for a key that was
+     * never added.
+     */
+    @Override
+    public boolean containsKey(T key) {
+        return getCount(key) > 0;
+    }
+}
@@ -2,8 +2,10 @@ package com.tyleryates.util;
 
 import com.google.common.base.Optional;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 /**
  * A collection that maps keys to the number of occurrences of those keys.
@@ -50,6 +52,47 @@ public interface CountingMap<T> {
      */
     void incrementCounts(Iterable<T> keys);
 
+    /**
+     * Decrements the occurrence count for the given key by the given number, stopping at zero (optional operation).
+     * If the occurrence count drops to zero the key is removed from the map, as if by {@link #remove(Object)}. If the
+     * key is not present in the map, the map is not changed.
+     *
+     * @param key the key to decrement the occurrence count
+     * @param countsToRemove the number to subtract from the occurrence count
+     *
+     * @return the new occurrence count for the given key or {@code 0} if the key is not in the map
+     *
+     * @throws IllegalArgumentException if {@code countsToRemove} is negative
+     * @throws UnsupportedOperationException if the map does not support decrementing counts
+     */
+    int decrementCount(T key, int countsToRemove) throws IllegalArgumentException;
+
+    /**
+     * Removes the given key and its occurrence count from the map (optional operation).
+     *
+     * @param key the key to remove
+     *
+     * @return the occurrence count the key had before it was removed or {@code 0} if the key was not in the map
+     *
+     * @throws UnsupportedOperationException if the map does not support removing keys
+     */
+    int remove(T key);
+
+    /**
+     * Sets the occurrence count for the given key to the given number, putting the key in the map if it is not present
+     * yet (optional operation). Setting the occurrence count of a key to zero removes it from the map.
+     *
+     * @param key the key to set the occurrence count
+     * @param count the new occurrence count
+     *
+     * @return the occurrence count for the given key before it was set or {@code 0} if the key was not in the map
+     *
+     * @throws IllegalArgumentException if {@code count} is negative
+     * @throws UnsupportedOperationException if lowering the occurrence count is required and the map does not support
+     * decrementing counts
+     */
+    int setCount(T key, int count) throws IllegalArgumentException;
+
     /**
      * Merges the keys and occurrence counts from the given map into the current map.
      *
@@ -74,6 +117,15 @@ public interface CountingMap<T> {
      */
     Map<T, Integer> getCounts();
 
+    /**
+     * Performs the given action for each key in the map along with its occurrence count. Unlike {@link #getCounts()},
+     * this method does not copy the map, so it is the preferred way to visit every key of a large map. No guarantee is
+     * made as to the order in which keys are visited. The map must not be modified by the action.
+     *
+     * @param action the action to perform for each key and occurrence count
+     */
+    void forEachCount(ObjIntConsumer<? super T> action);
+
     /**
      * Returns a key with the highest count if one exists. In case of ties, no guarantee is made as to which key will be
      * returned.
@@ -104,6 +156,42 @@ public interface CountingMap<T> {
      */
     Set<T> getKeysWithLowestCount();
 
+    /**
+     * Returns up to {@code k} keys with the highest counts, ordered from highest to lowest count. If the map has fewer
+     * than {@code k} keys, every key is returned. In case of ties, no guarantee is made as to which keys will be
+     * returned or in which order tied keys will appear.
+     *
+     * @param k the maximum number of keys to return
+     *
+     * @return the keys with the highest counts in descending order of count
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    List<T> topK(int k) throws IllegalArgumentException;
+
+    /**
+     * Returns up to {@code k} keys with the lowest counts, ordered from lowest to highest count. If the map has fewer
+     * than {@code k} keys, every key is returned. In case of ties, no guarantee is made as to which keys will be
+     * returned or in which order tied keys will appear.
+     *
+     * @param k the maximum number of keys to return
+     *
+     * @return the keys with the lowest counts in ascending order of count
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    List<T> bottomK(int k) throws IllegalArgumentException;
+
+    /**
+     * Returns the rank of the given key, which is one more than the number of keys with a strictly higher count. The
+     * keys with the highest count therefore have rank {@code 1}, and keys with equal counts share the same rank.
+     *
+     * @param key the given key
+     *
+     * @return the rank of the given key or {@code 0} if the key is not in the map
+     */
+    int getRank(T key);
+
     /**
      * Returns whether the given {@link CountingMap} is subsumed by the current {@link CountingMap}. By definition, map
      * {@code A} subsumes map {@code B} if and only if every key in {@code B} is also in {@code A} and the count for
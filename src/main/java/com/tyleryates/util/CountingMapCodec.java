@@ -0,0 +1,285 @@
+package com.tyleryates.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Writes {@link CountingMap} snapshots to channels in a compact binary format and reads them back.
+ * <p/>
+ * A snapshot starts with a short header holding a magic number, a format version, a flags byte, and the number of
+ * keys as a variable-length integer. Each key then follows as its {@link KeyCodec} encoding and its count as a
+ * variable-length integer, so small counts take a single byte. When a codec is created with {@code sortedByCount},
+ * keys are written in ascending order of count and each count is stored as the difference from the previous one,
+ * which keeps almost every count to a single byte for maps with many keys of similar counts.
+ * <p/>
+ * Entries are streamed through a fixed-size buffer, so writing does not copy the map, apart from the sorting fallback
+ * described in {@link #write(CountingMap, WritableByteChannel)}, and reading does not hold the whole snapshot in
+ * memory. The map being written must not be modified until {@link #write(CountingMap, WritableByteChannel)} returns.
+ * <p/>
+ * Instances of this class are immutable and may be shared between threads.
+ *
+ * @param <T> the type of key used by the maps
+ */
+public final class CountingMapCodec<T> {
+
+    private static final int MAGIC = 0x434D_5331;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_SORTED_BY_COUNT = 1;
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAXIMUM_EXPECTED_SIZE = 1 << 16;
+
+    private final KeyCodec<T> keyCodec;
+    private final boolean sortedByCount;
+    private final int bufferSize;
+
+    /**
+     * Creates a codec that writes keys in iteration order with their counts stored in full.
+     *
+     * @param keyCodec the codec used for keys
+     *
+     * @throws IllegalArgumentException if {@code keyCodec} is {@code null}
+     */
+    public CountingMapCodec(KeyCodec<T> keyCodec) {
+        this(keyCodec, false);
+    }
+
+    /**
+     * Creates a codec.
+     *
+     * @param keyCodec the codec used for keys
+     * @param sortedByCount whether keys should be written in ascending order of count with delta-encoded counts
+     *
+     * @throws IllegalArgumentException if {@code keyCodec} is {@code null}
+     */
+    public CountingMapCodec(KeyCodec<T> keyCodec, boolean sortedByCount) {
+        this(keyCodec, sortedByCount, DEFAULT_BUFFER_SIZE);
+    }
+
+    CountingMapCodec(KeyCodec<T> keyCodec, boolean sortedByCount, int bufferSize) {
+        checkArgument(keyCodec != null);
+        checkArgument(bufferSize >= Integer.BYTES + 2 + Integer.BYTES + 1);
+        this.keyCodec = keyCodec;
+        this.sortedByCount = sortedByCount;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Writes a snapshot of the given map to the given channel. The channel is not closed.
+     * <p/>
+     * Unsorted snapshots visit the keys with {@link CountingMap#forEachCount(ObjIntConsumer)} and copy nothing. Sorted
+     * snapshots of a {@link BucketCountingMap} are streamed from its buckets in order and copy nothing either. Sorting
+     * any other map falls back to {@link CountingMap#bottomK(int)}, which builds a sorted list of every key.
+     *
+     * @param countingMap the map to write
+     * @param channel the channel to write to
+     *
+     * @throws IllegalArgumentException if {@code countingMap} or {@code channel} is {@code null}
+     * @throws IOException if the channel cannot be written to
+     */
+    public void write(CountingMap<T> countingMap, WritableByteChannel channel) throws IOException {
+        checkArgument(countingMap != null);
+        checkArgument(channel != null);
+
+        final int size = countingMap.size();
+        final Writer writer = new Writer(channel);
+        writer.buffer.putInt(MAGIC).put(VERSION).put(sortedByCount ? FLAG_SORTED_BY_COUNT : 0);
+        Varints.writeUnsignedInt(writer.buffer, size);
+
+        if (sortedByCount && !(countingMap instanceof BucketCountingMap)) {
+            int previousCount = 0;
+            for (T key : countingMap.bottomK(size)) {
+                final int count = countingMap.getCount(key);
+                writer.write(key, count - previousCount);
+                previousCount = count;
+            }
+        } else {
+            final int[] previousCount = {0};
+            final ObjIntConsumer<T> writeEntry = (key, count) -> {
+                try {
+                    writer.write(key, sortedByCount ? count - previousCount[0] : count);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                previousCount[0] = count;
+            };
+            try {
+                if (sortedByCount) {
+                    ((BucketCountingMap<T>) countingMap).forEachCountAscending(writeEntry);
+                } else {
+                    countingMap.forEachCount(writeEntry);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        writer.drain();
+    }
+
+    /**
+     * Reads a snapshot from the given channel into a new {@link OpenHashCountingMap}. The channel is not closed.
+     *
+     * @param channel the channel to read from
+     *
+     * @return a counting map with the counts of the snapshot
+     *
+     * @throws IllegalArgumentException if {@code channel} is {@code null}
+     * @throws IOException if the channel cannot be read from or does not contain a valid snapshot
+     */
+    public CountingMap<T> read(ReadableByteChannel channel) throws IOException {
+        return read(channel, OpenHashCountingMap::new);
+    }
+
+    /**
+     * Reads a snapshot from the given channel into a new map created by the given factory. The channel is not closed.
+     * <p/>
+     * The factory is given the number of keys in the snapshot, capped at 65,536 so that a corrupt header cannot force
+     * a huge allocation before any entry has been read. Maps for larger snapshots grow as the entries are added.
+     *
+     * @param channel the channel to read from
+     * @param mapFactory the factory for the empty map to fill, given the expected number of keys
+     * @param <M> the type of counting map returned
+     *
+     * @return a counting map with the counts of the snapshot
+     *
+     * @throws IllegalArgumentException if {@code channel} or {@code mapFactory} is {@code null}
+     * @throws IOException if the channel cannot be read from or does not contain a valid snapshot
+     */
+    public <M extends CountingMap<T>> M read(ReadableByteChannel channel, IntFunction<M> mapFactory)
+            throws IOException {
+        checkArgument(channel != null);
+        checkArgument(mapFactory != null);
+
+        final Reader reader = new Reader(channel);
+        reader.require(Integer.BYTES + 2);
+        if (reader.buffer.getInt() != MAGIC) {
+            throw new IOException("Not a counting map snapshot");
+        }
+        if (reader.buffer.get() != VERSION) {
+            throw new IOException("Unsupported counting map snapshot version");
+        }
+        final boolean sorted = (reader.buffer.get() & FLAG_SORTED_BY_COUNT) != 0;
+        final int size = reader.readUnsignedInt();
+        if (size < 0) {
+            throw new IOException("Corrupt counting map snapshot");
+        }
+
+        final M countingMap = mapFactory.apply(Math.min(size, MAXIMUM_EXPECTED_SIZE));
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final T key = reader.readKey();
+            final int value = reader.readUnsignedInt();
+            if (value < 0 || (sorted && value > Integer.MAX_VALUE - count)) {
+                throw new IOException("Corrupt counting map snapshot");
+            }
+            count = sorted ? count + value : value;
+            countingMap.incrementCount(key, count);
+        }
+        return countingMap;
+    }
+
+    /**
+     * Buffers encoded entries and writes them to a channel whenever the buffer fills up.
+     */
+    private final class Writer {
+        private final WritableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+
+        Writer(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(T key, int value) throws IOException {
+            final int length = keyCodec.encodedLength(key) + Varints.unsignedIntLength(value);
+            if (buffer.remaining() < length) {
+                drain();
+                if (buffer.capacity() < length) {
+                    buffer = ByteBuffer.allocate(length);
+                }
+            }
+            keyCodec.encode(key, buffer);
+            Varints.writeUnsignedInt(buffer, value);
+        }
+
+        void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Decodes values from a buffer that is refilled from a channel whenever a value runs past its end.
+     */
+    private final class Reader {
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+
+        Reader(ReadableByteChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        void require(int length) throws IOException {
+            while (buffer.remaining() < length) {
+                fill();
+            }
+        }
+
+        T readKey() throws IOException {
+            while (true) {
+                final int start = buffer.position();
+                try {
+                    return keyCodec.decode(buffer);
+                } catch (BufferUnderflowException e) {
+                    buffer.position(start);
+                    fill();
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt counting map snapshot", e);
+                }
+            }
+        }
+
+        int readUnsignedInt() throws IOException {
+            while (true) {
+                final int start = buffer.position();
+                try {
+                    return Varints.readUnsignedInt(buffer);
+                } catch (BufferUnderflowException e) {
+                    buffer.position(start);
+                    fill();
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt counting map snapshot", e);
+                }
+            }
+        }
+
+        /**
+         * Reads more bytes from the channel, keeping any unread bytes and growing the buffer if it is already full.
+         */
+        private void fill() throws IOException {
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            final int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                throw new EOFException("Counting map snapshot ended unexpectedly");
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.tyleryates.util;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Utility class that provides various helper methods for building {@link CountingMap} instances from large inputs.
+ */
+public final class CountingMaps {
+
+    /**
+     * The number of leaf tasks created per worker thread when splitting input, which leaves room for work stealing
+     * when some parts of the input are slower to count than others.
+     */
+    private static final int LEAF_TASKS_PER_THREAD = 4;
+
+    /**
+     * The smallest number of keys worth counting in a separate task.
+     */
+    private static final long MINIMUM_KEYS_PER_TASK = 1024;
+
+    /**
+     * Counts the keys of the given spliterator in parallel into a {@link HashCountingMap}.
+     *
+     * @param keys the keys to count
+     * @param <T> the type of key used by the map
+     *
+     * @return a counting map with the occurrence count of every key
+     *
+     * @throws IllegalArgumentException if {@code keys} is {@code null}
+     * @see #parallelCount(Spliterator, Supplier)
+     */
+    public static <T> CountingMap<T> parallelCount(Spliterator<T> keys) {
+        return parallelCount(keys, HashCountingMap::new);
+    }
+
+    /**
+     * Counts the keys of the given spliterator in parallel.
+     * <p/>
+     * The spliterator is split recursively across the common fork-join pool. Each part is counted into its own map
+     * created by the given supplier, so the counting itself needs no synchronization, and the partial maps are then
+     * merged pairwise as the tasks complete using {@link CountingMap#mergeCounts(CountingMap)}.
+     *
+     * @param keys the keys to count
+     * @param mapSupplier the supplier of empty counting maps used for each part of the input and for the result
+     * @param <T> the type of key used by the map
+     * @param <M> the type of counting map returned
+     *
+     * @return a counting map with the occurrence count of every key
+     *
+     * @throws IllegalArgumentException if {@code keys} or {@code mapSupplier} is {@code null}
+     */
+    public static <T, M extends CountingMap<T>> M parallelCount(Spliterator<T> keys, Supplier<M> mapSupplier) {
+        checkArgument(keys != null);
+        checkArgument(mapSupplier != null);
+
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final long estimatedSize = keys.estimateSize();
+        final long keysPerTask;
+        if (estimatedSize == Long.MAX_VALUE) {
+            keysPerTask = MINIMUM_KEYS_PER_TASK;
+        } else {
+            keysPerTask = Math.max(
+                    MINIMUM_KEYS_PER_TASK,
+                    estimatedSize / ((long) pool.getParallelism() * LEAF_TASKS_PER_THREAD));
+        }
+        return pool.invoke(new CountTask<>(keys, mapSupplier, keysPerTask));
+    }
+
+    /**
+     * Counts the keys of the given stream in parallel into a {@link HashCountingMap}. The stream is made parallel if
+     * it is not already.
+     *
+     * @param keys the keys to count
+     * @param <T> the type of key used by the map
+     *
+     * @return a counting map with the occurrence count of every key
+     *
+     * @throws IllegalArgumentException if {@code keys} is {@code null}
+     */
+    public static <T> CountingMap<T> parallelCount(Stream<T> keys) {
+        checkArgument(keys != null);
+        return keys.parallel().collect(CountingMaps.<T>toCountingMap());
+    }
+
+    /**
+     * Returns a {@link Collector} that counts the elements of a stream into a {@link HashCountingMap}. When used with a
+     * parallel stream, each thread counts into its own map and the maps are merged at the end.
+     *
+     * @param <T> the type of key used by the map
+     *
+     * @return a collector that counts stream elements
+     */
+    public static <T> Collector<T, ?, CountingMap<T>> toCountingMap() {
+        return toCountingMap(HashCountingMap<T>::new);
+    }
+
+    /**
+     * Returns a {@link Collector} that counts the elements of a stream into counting maps created by the given
+     * supplier. When used with a parallel stream, each thread counts into its own map and the maps are merged at the
+     * end.
+     *
+     * @param mapSupplier the supplier of empty counting maps
+     * @param <T> the type of key used by the map
+     * @param <M> the type of counting map returned
+     *
+     * @return a collector that counts stream elements
+     *
+     * @throws IllegalArgumentException if {@code mapSupplier} is {@code null}
+     */
+    public static <T, M extends CountingMap<T>> Collector<T, ?, M> toCountingMap(Supplier<M> mapSupplier) {
+        checkArgument(mapSupplier != null);
+        return Collector.of(
+                mapSupplier,
+                (M counts, T key) -> counts.incrementCount(key),
+                (left, right) -> {
+                    left.mergeCounts(right);
+                    return left;
+                },
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Counts part of the input, splitting it further if it is still larger than the leaf size.
+     */
+    private static final class CountTask<T, M extends CountingMap<T>> extends RecursiveTask<M> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<T> keys;
+        private final Supplier<M> mapSupplier;
+        private final long keysPerTask;
+
+        private CountTask(Spliterator<T> keys, Supplier<M> mapSupplier, long keysPerTask) {
+            this.keys = keys;
+            this.mapSupplier = mapSupplier;
+            this.keysPerTask = keysPerTask;
+        }
+
+        @Override
+        protected M compute() {
+            if (keys.estimateSize() > keysPerTask) {
+                final Spliterator<T> prefix = keys.trySplit();
+                if (prefix != null) {
+                    // Both halves become tasks of their own, so the suffix of an unsized spliterator is split again
+                    // in a subtask rather than in this one, and the partial maps are merged as a tree
+                    final CountTask<T, M> prefixTask = new CountTask<>(prefix, mapSupplier, keysPerTask);
+                    final CountTask<T, M> suffixTask = new CountTask<>(keys, mapSupplier, keysPerTask);
+                    invokeAll(prefixTask, suffixTask);
+                    final M counts = suffixTask.join();
+                    counts.mergeCounts(prefixTask.join());
+                    return counts;
+                }
+            }
+
+            final M counts = mapSupplier.get();
+            keys.forEachRemaining(counts::incrementCount);
+            return counts;
+        }
+    }
+}
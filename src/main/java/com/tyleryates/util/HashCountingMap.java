@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -19,12 +20,25 @@ import static com.google.common.base.Preconditions.checkArgument;
  * #getKeyWithHighestCount()}, {@link #getKeysWithHighestCount()}, and {@link #size()}. The {@link
  * #getKeyWithLowestCount()} and {@link #getKeysWithLowestCount()} operations are not guaranteed to have constant-time
  * performance as they may require a full scan of the map.
+ * <p/>
+ * This map also supports {@link #decrementCount(Object, int)}, {@link #remove(Object)}, and {@link #setCount(Object,
+ * int)} in constant time. The keys with the highest and lowest counts are kept up to date as counts go down, and a
+ * scan is only needed when the last key with the highest or lowest count moves away from it, in which case the next
+ * query for that extremum rebuilds it. A key whose count is decremented to zero is removed from the map. Workloads that
+ * repeatedly decrement the key with the highest count should use a {@link BucketCountingMap}, which never rescans.
+ * <p/>
+ * The ranked queries {@link #topK(int)} and {@link #bottomK(int)} scan every key and take {@code O(n log k)} time.
+ * Workloads that query them often should also use a {@link BucketCountingMap}, which answers them in {@code O(k)}.
+ * <p/>
+ * Counts wrap around to negative numbers if they exceed {@link Integer#MAX_VALUE}, unless the map is created with a
+ * different {@link OverflowPolicy}. Use a {@link LongCountingMap} for counts that are expected to grow that large.
  *
  * @param <T> the type of key used by the map
  */
-public class HashCountingMap<T> implements CountingMap<T> {
+public class HashCountingMap<T> extends AbstractCountingMap<T> {
 
     private final Map<T, Integer> occurrences;
+    private final OverflowPolicy overflowPolicy;
     private final Set<T> keysWithHighestCount = new HashSet<>();
     private final Set<T> keysWithLowestCount = new HashSet<>();
     private int highestCount = 0;
@@ -34,7 +48,21 @@ public class HashCountingMap<T> implements CountingMap<T> {
      * Creates an empty counting map.
      */
     public HashCountingMap() {
-        occurrences = new HashMap<>();
+        this(OverflowPolicy.WRAP);
+    }
+
+    /**
+     * Creates an empty counting map that handles counts exceeding {@link Integer#MAX_VALUE} according to the given
+     * policy.
+     *
+     * @param overflowPolicy the policy for counts that overflow
+     *
+     * @throws IllegalArgumentException if {@code overflowPolicy} is {@code null}
+     */
+    public HashCountingMap(OverflowPolicy overflowPolicy) {
+        checkArgument(overflowPolicy != null);
+        this.occurrences = new HashMap<>();
+        this.overflowPolicy = overflowPolicy;
     }
 
     /**
@@ -43,15 +71,17 @@ public class HashCountingMap<T> implements CountingMap<T> {
      * @param keys the given iterable
      */
     public HashCountingMap(Iterable<T> keys) {
-        occurrences = new HashMap<>();
+        this();
         incrementCounts(keys);
     }
 
-    @Override
-    public int incrementCount(T key) {
-        return incrementCount(key, 1);
-    }
-
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative
+     * @throws ArithmeticException if the new count would exceed {@link Integer#MAX_VALUE} and the map was created with
+     * {@link OverflowPolicy#THROW}
+     */
     @Override
     public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
         checkArgument(countsToAdd >= 0);
@@ -61,7 +91,7 @@ public class HashCountingMap<T> implements CountingMap<T> {
         if (currentCount == null) {
             newCount = countsToAdd;
         } else {
-            newCount = currentCount + countsToAdd;
+            newCount = overflowPolicy.add(currentCount, countsToAdd);
         }
         occurrences.put(key, newCount);
 
@@ -87,20 +117,90 @@ public class HashCountingMap<T> implements CountingMap<T> {
         return newCount;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToRemove} is negative
+     */
+    @Override
+    public int decrementCount(T key, int countsToRemove) throws IllegalArgumentException {
+        checkArgument(countsToRemove >= 0);
+
+        final Integer currentCount = occurrences.get(key);
+        if (currentCount == null) {
+            return 0;
+        }
+        final int newCount = Math.max(0, currentCount - countsToRemove);
+        if (newCount == currentCount) {
+            return newCount;
+        }
+        if (newCount == 0) {
+            remove(key);
+            return 0;
+        }
+        occurrences.put(key, newCount);
+
+        if (occurrences.size() == 1) {
+            // The only key is trivially both the highest-count and the lowest-count key
+            highestCount = newCount;
+            keysWithHighestCount.add(key);
+        } else if (currentCount == highestCount) {
+            // The key can no longer be one of the highest-count keys, and if it was the last one the set is rebuilt
+            // the next time it is needed since the count of the runner-up key is not tracked
+            keysWithHighestCount.remove(key);
+        }
+
+        if (newCount < lowestCount) {
+            lowestCount = newCount;
+            keysWithLowestCount.clear();
+            keysWithLowestCount.add(key);
+        } else if (newCount == lowestCount) {
+            keysWithLowestCount.add(key);
+        }
+
+        return newCount;
+    }
+
     @Override
-    public void incrementCounts(Iterable<T> keys) {
-        for (final T key : keys) {
-            incrementCount(key);
+    public int remove(T key) {
+        final Integer count = occurrences.remove(key);
+        if (count == null) {
+            return 0;
         }
+        keysWithHighestCount.remove(key);
+        keysWithLowestCount.remove(key);
+        return count;
     }
 
     @Override
     public void mergeCounts(CountingMap<T> otherCounts) {
-        for (final Map.Entry<T, Integer> entry : otherCounts.getCounts().entrySet()) {
+        if (!(otherCounts instanceof HashCountingMap)) {
+            super.mergeCounts(otherCounts);
+            return;
+        }
+
+        final HashCountingMap<T> other = (HashCountingMap<T>) otherCounts;
+        if (occurrences.isEmpty()) {
+            // Merging into an empty map is a copy, so the extremum state of the other map can be reused as is
+            occurrences.putAll(other.occurrences);
+            highestCount = other.highestCount;
+            lowestCount = other.lowestCount;
+            keysWithHighestCount.addAll(other.keysWithHighestCount);
+            keysWithLowestCount.addAll(other.keysWithLowestCount);
+            return;
+        }
+        for (final Map.Entry<T, Integer> entry : other.occurrences.entrySet()) {
             incrementCount(entry.getKey(), entry.getValue());
         }
     }
 
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        for (final Map.Entry<T, Integer> entry : occurrences.entrySet()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
     @Override
     public int getCount(T key) {
         final Integer occurrenceCount = occurrences.get(key);
@@ -118,16 +218,43 @@ public class HashCountingMap<T> implements CountingMap<T> {
     @Override
     public Optional<T> getKeyWithHighestCount() {
         if (keysWithHighestCount.isEmpty()) {
-            return Optional.absent();
+            if (occurrences.isEmpty()) {
+                return Optional.absent();
+            } else {
+                // If the set of highest-count keys is empty but the map is not, we need to rebuild the set
+                updateHighestCount();
+            }
         }
         return Optional.of(keysWithHighestCount.iterator().next());
     }
 
     @Override
     public Set<T> getKeysWithHighestCount() {
+        if (keysWithHighestCount.isEmpty() && !occurrences.isEmpty()) {
+            // If the set of highest-count keys is empty but the map is not, we need to rebuild the highest-count set
+            updateHighestCount();
+        }
         return ImmutableSet.copyOf(keysWithHighestCount);
     }
 
+    /**
+     * Updates the highest count for the map.
+     */
+    private void updateHighestCount() {
+        highestCount = 0;
+        for (final Map.Entry<T, Integer> keyAndCount : occurrences.entrySet()) {
+            final int count = keyAndCount.getValue();
+            final T key = keyAndCount.getKey();
+            if (count > highestCount) {
+                highestCount = count;
+                keysWithHighestCount.clear();
+                keysWithHighestCount.add(key);
+            } else if (count == highestCount) {
+                keysWithHighestCount.add(key);
+            }
+        }
+    }
+
     @Override
     public Optional<T> getKeyWithLowestCount() {
         if (keysWithLowestCount.isEmpty()) {
@@ -169,9 +296,9 @@ public class HashCountingMap<T> implements CountingMap<T> {
     }
 
     @Override
-    public boolean subsumes(CountingMap<T> other) {
-        for (final Map.Entry<T, Integer> entry : other.getCounts().entrySet()) {
-            if (entry.getValue() > getCount(entry.getKey())) {
+    boolean allCountsMatch(ObjIntPredicate<? super T> predicate) {
+        for (final Map.Entry<T, Integer> entry : occurrences.entrySet()) {
+            if (!predicate.test(entry.getKey(), entry.getValue())) {
                 return false;
             }
         }
@@ -183,11 +310,6 @@ public class HashCountingMap<T> implements CountingMap<T> {
         return occurrences.size();
     }
 
-    @Override
-    public boolean isEmpty() {
-        return occurrences.size() == 0;
-    }
-
     @Override
     public boolean containsKey(T key) {
         return occurrences.containsKey(key);
@@ -1,14 +1,109 @@
 package com.tyleryates.util;
 
+import java.nio.IntBuffer;
+import java.util.BitSet;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Utility class that provides various helper methods for dealing with integers.
+ * <p/>
+ * The random methods that do not take a {@link Random} draw from {@link ThreadLocalRandom}, which needs no allocation
+ * and is never contended between threads. Random integers are reduced to a range with Lemire's multiply-shift method:
+ * the 32 random bits are multiplied by the size of the range and the high 32 bits of the product are the result. A
+ * division is only needed to reject the few products that would bias the result, which is rare unless the range is
+ * close to {@code 2^32} in size, and every range up to the full range of {@code int} is handled.
  */
 public final class Integers {
 
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+    private static final long TWO_TO_THE_32 = 1L << 32;
+
+    /**
+     * The number of values copied out of a buffer without an accessible array at a time, which is a multiple of 64 so
+     * that each chunk starts a new word of a mask.
+     */
+    private static final int CHUNK_SIZE = 1_024;
+
+    /**
+     * A property of an integer that the bulk methods of {@link Integers} classify values by.
+     * <p/>
+     * Every property is computed by the same branch-free formula, {@code (((n * multiplier) & (n ^ flip)) >>> shift &
+     * 1) ^ invert}, with constants chosen per property. Parity takes the lowest bit of {@code n}. Negative takes the
+     * sign bit of {@code n}, and positive takes the sign bit of {@code -n & ~n}, which is negative exactly when {@code
+     * n > 0}, even for {@link Integer#MIN_VALUE}. The other properties invert one of these. Since a loop over an array
+     * then does the same arithmetic on every element, the JIT is free to vectorize it.
+     */
+    public enum Property implements IntPredicate {
+        /**
+         * {@code n > 0}.
+         */
+        POSITIVE(-1, -1, 31, 0),
+
+        /**
+         * {@code n < 0}.
+         */
+        NEGATIVE(1, 0, 31, 0),
+
+        /**
+         * {@code n >= 0}.
+         */
+        NON_NEGATIVE(1, 0, 31, 1),
+
+        /**
+         * {@code n <= 0}.
+         */
+        NON_POSITIVE(-1, -1, 31, 1),
+
+        /**
+         * {@code n} is even.
+         */
+        EVEN(1, 0, 0, 1),
+
+        /**
+         * {@code n} is odd.
+         */
+        ODD(1, 0, 0, 0);
+
+        private final int multiplier;
+        private final int flip;
+        private final int shift;
+        private final int invert;
+
+        Property(int multiplier, int flip, int shift, int invert) {
+            this.multiplier = multiplier;
+            this.flip = flip;
+            this.shift = shift;
+            this.invert = invert;
+        }
+
+        /**
+         * Returns whether the given number has this property.
+         *
+         * @param n the given number
+         *
+         * @return whether the given number has this property
+         */
+        @Override
+        public boolean test(int n) {
+            return bit(n) != 0;
+        }
+
+        /**
+         * Returns {@code 1} if the given number has this property and {@code 0} otherwise.
+         */
+        int bit(int n) {
+            return ((n * multiplier & (n ^ flip)) >>> shift & 1) ^ invert;
+        }
+    }
+
     /**
      * Returns whether the given number is positive i.e. {@code n > 0}.
      *
@@ -61,7 +156,7 @@ public final class Integers {
      * @return whether the given number is even
      */
     public static boolean isEven(int n) {
-        return n % 2 == 0;
+        return (n & 1) == 0;
     }
 
     /**
@@ -72,11 +167,12 @@ public final class Integers {
      * @return whether the given number is odd
      */
     public static boolean isOdd(int n) {
-        return n % 2 != 0;
+        return (n & 1) != 0;
     }
 
     /**
-     * Returns a random integer within the given range {@code [lowerBound, upperBound]}.
+     * Returns a random integer within the given range {@code [lowerBound, upperBound]}, drawn from {@link
+     * ThreadLocalRandom}.
      *
      * @param lowerBound the lower bound of the given range (inclusive)
      * @param upperBound the upper bound of the given range (inclusive)
@@ -86,12 +182,116 @@ public final class Integers {
      * @throws IllegalArgumentException if {@code lowerBound} >= {@code upperBound}.
      */
     public static int randomInt(int lowerBound, int upperBound) {
-        return randomInt(lowerBound, upperBound, new Random());
+        checkArgument(lowerBound < upperBound);
+        return nextInt(ThreadLocalRandom.current()::nextInt, lowerBound, (long) upperBound - lowerBound + 1);
+    }
+
+    /**
+     * Returns a random integer within the given range {@code [lowerBound, upperBound]} using the given {@link
+     * SplittableRandom} instance, so that the same seed always gives the same integers.
+     *
+     * @param lowerBound the lower bound of the given range (inclusive)
+     * @param upperBound the upper bound of the given range (inclusive)
+     * @param random the given {@link SplittableRandom} instance
+     *
+     * @return a random integer within the given range
+     *
+     * @throws IllegalArgumentException if {@code lowerBound} >= {@code upperBound} or {@code random} is {@code null}.
+     */
+    public static int randomInt(int lowerBound, int upperBound, SplittableRandom random) {
+        checkArgument(lowerBound < upperBound);
+        checkArgument(random != null);
+
+        return nextInt(random::nextInt, lowerBound, (long) upperBound - lowerBound + 1);
+    }
+
+    /**
+     * Fills the given array with random integers within the given range {@code [lowerBound, upperBound]}.
+     *
+     * @param array the array to fill
+     * @param lowerBound the lower bound of the given range (inclusive)
+     * @param upperBound the upper bound of the given range (inclusive)
+     *
+     * @throws IllegalArgumentException if {@code lowerBound} >= {@code upperBound} or {@code array} is {@code null}.
+     */
+    public static void fillRandomInts(int[] array, int lowerBound, int upperBound) {
+        checkArgument(array != null);
+        checkArgument(lowerBound < upperBound);
+
+        final IntSupplier source = ThreadLocalRandom.current()::nextInt;
+        final long span = (long) upperBound - lowerBound + 1;
+        for (int i = 0; i < array.length; i++) {
+            array[i] = nextInt(source, lowerBound, span);
+        }
+    }
+
+    /**
+     * Fills the given array with random integers within the given range {@code [lowerBound, upperBound]} using the
+     * given {@link SplittableRandom} instance.
+     *
+     * @param array the array to fill
+     * @param lowerBound the lower bound of the given range (inclusive)
+     * @param upperBound the upper bound of the given range (inclusive)
+     * @param random the given {@link SplittableRandom} instance
+     *
+     * @throws IllegalArgumentException if {@code lowerBound} >= {@code upperBound} or {@code array} or {@code random}
+     * is {@code null}.
+     */
+    public static void fillRandomInts(int[] array, int lowerBound, int upperBound, SplittableRandom random) {
+        checkArgument(array != null);
+        checkArgument(lowerBound < upperBound);
+        checkArgument(random != null);
+
+        final IntSupplier source = random::nextInt;
+        final long span = (long) upperBound - lowerBound + 1;
+        for (int i = 0; i < array.length; i++) {
+            array[i] = nextInt(source, lowerBound, span);
+        }
+    }
+
+    /**
+     * Returns a stream of the given number of random integers within the given range {@code [lowerBound,
+     * upperBound]}. The stream may be made parallel, in which case each thread draws from its own {@link
+     * ThreadLocalRandom}.
+     *
+     * @param streamSize the number of integers to produce
+     * @param lowerBound the lower bound of the given range (inclusive)
+     * @param upperBound the upper bound of the given range (inclusive)
+     *
+     * @return a stream of random integers within the given range
+     *
+     * @throws IllegalArgumentException if {@code lowerBound} >= {@code upperBound} or {@code streamSize} is negative.
+     */
+    public static IntStream randomInts(long streamSize, int lowerBound, int upperBound) {
+        checkArgument(streamSize >= 0);
+        checkArgument(lowerBound < upperBound);
+
+        final long span = (long) upperBound - lowerBound + 1;
+        return LongStream.range(0, streamSize)
+                .mapToInt(i -> nextInt(ThreadLocalRandom.current()::nextInt, lowerBound, span));
+    }
+
+    /**
+     * Returns {@code lowerBound} plus a uniformly distributed integer in {@code [0, span)}, where {@code span} is
+     * between {@code 2} and {@code 2^32}, drawing uniformly distributed {@code int} values from the given source.
+     */
+    private static int nextInt(IntSupplier random, int lowerBound, long span) {
+        long product = (random.getAsInt() & LOW_BITS) * span;
+        if ((product & LOW_BITS) < span) {
+            final long threshold = (TWO_TO_THE_32 - span) % span;
+            while ((product & LOW_BITS) < threshold) {
+                product = (random.getAsInt() & LOW_BITS) * span;
+            }
+        }
+        return lowerBound + (int) (product >>> 32);
     }
 
     /**
      * Returns a random integer within the given range {@code [lowerBound, upperBound]} using the given {@link Random}
      * instance.
+     * <p/>
+     * Ranges of at most {@link Integer#MAX_VALUE} integers are drawn with {@link Random#nextInt(int)}, while wider
+     * ranges, up to the full range of {@code int}, are drawn from {@link Random#nextInt()}.
      *
      * @param lowerBound the lower bound of the given range (inclusive)
      * @param upperBound the upper bound of the given range (inclusive)
@@ -105,6 +305,269 @@ public final class Integers {
         checkArgument(lowerBound < upperBound);
         checkArgument(random != null);
 
-        return random.nextInt(upperBound + 1 - lowerBound) + lowerBound;
+        // Ranges that fit Random.nextInt(int) keep using it, so a seeded Random still gives the same integers as before
+        final long span = (long) upperBound - lowerBound + 1;
+        if (span <= Integer.MAX_VALUE) {
+            return random.nextInt((int) span) + lowerBound;
+        }
+        return nextInt(random::nextInt, lowerBound, span);
+    }
+
+    /**
+     * Returns the number of the given values that have the given property.
+     *
+     * @param values the given values
+     * @param property the given property
+     *
+     * @return the number of values with the property
+     *
+     * @throws IllegalArgumentException if {@code values} or {@code property} is {@code null}.
+     */
+    public static int count(int[] values, Property property) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+
+        return count(values, 0, values.length, property);
+    }
+
+    /**
+     * Returns the number of the remaining values in the given buffer that have the given property. The position of the
+     * buffer is not changed.
+     *
+     * @param values the given values
+     * @param property the given property
+     *
+     * @return the number of values with the property
+     *
+     * @throws IllegalArgumentException if {@code values} or {@code property} is {@code null}.
+     */
+    public static int count(IntBuffer values, Property property) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+
+        if (values.hasArray()) {
+            final int from = values.arrayOffset() + values.position();
+            return count(values.array(), from, from + values.remaining(), property);
+        }
+        final IntBuffer source = values.duplicate();
+        final int[] chunk = new int[Math.min(CHUNK_SIZE, source.remaining())];
+        int count = 0;
+        while (source.hasRemaining()) {
+            final int length = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, length);
+            count += count(chunk, 0, length, property);
+        }
+        return count;
+    }
+
+    private static int count(int[] values, int from, int to, Property property) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            count += property.bit(values[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Copies the given values that have the given property to the start of the given destination, keeping their
+     * order, and returns how many were copied. The destination may be the values array itself, which filters it in
+     * place.
+     * <p/>
+     * Every value is written to the destination and the position to write next only moves on past the values that
+     * have the property, so the loop never branches on a value. The destination therefore needs room for every value,
+     * and the elements after the copied values may be overwritten.
+     *
+     * @param values the given values
+     * @param property the given property
+     * @param destination the array to copy the values with the property to
+     *
+     * @return the number of values copied, which are at the start of the destination
+     *
+     * @throws IllegalArgumentException if {@code values}, {@code property} or {@code destination} is {@code null} or
+     * {@code destination} is shorter than {@code values}.
+     */
+    public static int filter(int[] values, Property property, int[] destination) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+        checkArgument(destination != null);
+        checkArgument(destination.length >= values.length);
+
+        return filter(values, 0, values.length, property, destination, 0);
+    }
+
+    /**
+     * Puts the remaining values in the given buffer that have the given property into the given destination buffer,
+     * keeping their order, and returns how many were put. The position of {@code values} is not changed and the
+     * position of {@code destination} moves past the values that were put.
+     * <p/>
+     * As with {@link #filter(int[], Property, int[])}, the destination needs room for every remaining value, and the
+     * elements after the values that were put may be overwritten.
+     *
+     * @param values the given values
+     * @param property the given property
+     * @param destination the buffer to put the values with the property into
+     *
+     * @return the number of values put into the destination
+     *
+     * @throws IllegalArgumentException if {@code values}, {@code property} or {@code destination} is {@code null} or
+     * {@code destination} has fewer elements remaining than {@code values}.
+     */
+    public static int filter(IntBuffer values, Property property, IntBuffer destination) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+        checkArgument(destination != null);
+        checkArgument(destination.remaining() >= values.remaining());
+
+        if (values.hasArray() && destination.hasArray()) {
+            final int from = values.arrayOffset() + values.position();
+            final int count = filter(values.array(), from, from + values.remaining(), property,
+                    destination.array(), destination.arrayOffset() + destination.position());
+            destination.position(destination.position() + count);
+            return count;
+        }
+        final IntBuffer source = values.duplicate();
+        final int[] chunk = new int[Math.min(CHUNK_SIZE, source.remaining())];
+        int count = 0;
+        while (source.hasRemaining()) {
+            final int length = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, length);
+            final int kept = filter(chunk, 0, length, property, chunk, 0);
+            destination.put(chunk, 0, kept);
+            count += kept;
+        }
+        return count;
+    }
+
+    private static int filter(int[] values, int from, int to, Property property, int[] destination, int start) {
+        int position = start;
+        for (int i = from; i < to; i++) {
+            final int value = values[i];
+            destination[position] = value;
+            position += property.bit(value);
+        }
+        return position - start;
+    }
+
+    /**
+     * Reorders the given values so that those with the given property come before those without it and returns how
+     * many have the property. The order within each group is not preserved.
+     *
+     * @param values the given values
+     * @param property the given property
+     *
+     * @return the number of values with the property, which are at the start of the array
+     *
+     * @throws IllegalArgumentException if {@code values} or {@code property} is {@code null}.
+     */
+    public static int partition(int[] values, Property property) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+
+        return partition(values, 0, values.length, property);
+    }
+
+    /**
+     * Reorders the remaining values in the given buffer so that those with the given property come before those
+     * without it and returns how many have the property. The position of the buffer is not changed.
+     *
+     * @param values the given values
+     * @param property the given property
+     *
+     * @return the number of values with the property, which are at the start of the remaining values
+     *
+     * @throws IllegalArgumentException if {@code values} or {@code property} is {@code null}.
+     */
+    public static int partition(IntBuffer values, Property property) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+
+        if (values.hasArray()) {
+            final int from = values.arrayOffset() + values.position();
+            return partition(values.array(), from, from + values.remaining(), property);
+        }
+        final int[] copy = new int[values.remaining()];
+        values.duplicate().get(copy);
+        final int count = partition(copy, 0, copy.length, property);
+        values.duplicate().put(copy);
+        return count;
+    }
+
+    private static int partition(int[] values, int from, int to, Property property) {
+        int boundary = from;
+        for (int i = from; i < to; i++) {
+            // Swaps the value into the boundary when it has the property and writes both back unchanged otherwise
+            final int value = values[i];
+            final int displaced = values[boundary];
+            final int mask = -property.bit(value);
+            values[i] = displaced & mask | value & ~mask;
+            values[boundary] = value & mask | displaced & ~mask;
+            boundary -= mask;
+        }
+        return boundary - from;
+    }
+
+    /**
+     * Returns the set of indexes of the given values that have the given property.
+     *
+     * @param values the given values
+     * @param property the given property
+     *
+     * @return the indexes of the values with the property
+     *
+     * @throws IllegalArgumentException if {@code values} or {@code property} is {@code null}.
+     */
+    public static BitSet mask(int[] values, Property property) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+
+        return mask(values, 0, values.length, property);
+    }
+
+    /**
+     * Returns the set of indexes, counted from the position of the buffer, of the remaining values in the given buffer
+     * that have the given property. The position of the buffer is not changed.
+     *
+     * @param values the given values
+     * @param property the given property
+     *
+     * @return the indexes of the values with the property
+     *
+     * @throws IllegalArgumentException if {@code values} or {@code property} is {@code null}.
+     */
+    public static BitSet mask(IntBuffer values, Property property) {
+        checkArgument(values != null);
+        checkArgument(property != null);
+
+        final long[] words = new long[(values.remaining() + 63) >>> 6];
+        if (values.hasArray()) {
+            final int from = values.arrayOffset() + values.position();
+            mask(values.array(), from, from + values.remaining(), property, words, 0);
+            return BitSet.valueOf(words);
+        }
+        final IntBuffer source = values.duplicate();
+        final int[] chunk = new int[Math.min(CHUNK_SIZE, source.remaining())];
+        int word = 0;
+        while (source.hasRemaining()) {
+            final int length = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, length);
+            mask(chunk, 0, length, property, words, word);
+            word += CHUNK_SIZE >>> 6;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static BitSet mask(int[] values, int from, int to, Property property) {
+        final long[] words = new long[(to - from + 63) >>> 6];
+        mask(values, from, to, property, words, 0);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Sets the bits of the values with the given property in the given words, starting from the given word.
+     */
+    private static void mask(int[] values, int from, int to, Property property, long[] words, int firstWord) {
+        for (int i = 0; i < to - from; i++) {
+            words[firstWord + (i >>> 6)] |= (long) property.bit(values[from + i]) << i;
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.tyleryates.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts keys to and from a binary representation so that {@link CountingMap} contents can be stored outside of the
+ * Java heap.
+ * <p/>
+ * Encodings must be canonical: two keys that are equal must always produce identical bytes. An encoding must also be
+ * self-delimiting so that a key can be decoded without being told its length.
+ *
+ * @param <T> the type of key handled by the codec
+ * @see KeyCodecs
+ */
+public interface KeyCodec<T> {
+
+    /**
+     * Returns the number of bytes that {@link #encode(Object, ByteBuffer)} will write for the given key.
+     *
+     * @param key the given key
+     *
+     * @return the length of the encoded key in bytes
+     */
+    int encodedLength(T key);
+
+    /**
+     * Writes the encoded form of the given key at the current position of the given buffer, advancing the position by
+     * {@link #encodedLength(Object)} bytes.
+     *
+     * @param key the key to encode
+     * @param buffer the buffer to write to
+     *
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining
+     */
+    void encode(T key, ByteBuffer buffer);
+
+    /**
+     * Reads a key from the current position of the given buffer, advancing the position past the encoded key.
+     *
+     * @param buffer the buffer to read from
+     *
+     * @return the decoded key
+     *
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the encoded key does
+     * @throws IllegalArgumentException if the bytes at the current position are not a valid encoding
+     */
+    T decode(ByteBuffer buffer);
+}
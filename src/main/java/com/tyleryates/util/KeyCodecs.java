@@ -0,0 +1,110 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Utf8;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Utility class that provides {@link KeyCodec} implementations for common key types.
+ */
+public final class KeyCodecs {
+
+    private static final KeyCodec<Integer> INTEGERS = new KeyCodec<Integer>() {
+        @Override
+        public int encodedLength(Integer key) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer key, ByteBuffer buffer) {
+            buffer.putInt(key);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    private static final KeyCodec<Long> LONGS = new KeyCodec<Long>() {
+        @Override
+        public int encodedLength(Long key) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long key, ByteBuffer buffer) {
+            buffer.putLong(key);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    private static final KeyCodec<String> STRINGS = new KeyCodec<String>() {
+        @Override
+        public int encodedLength(String key) {
+            final int length = Utf8.encodedLength(key);
+            return Varints.unsignedIntLength(length) + length;
+        }
+
+        @Override
+        public void encode(String key, ByteBuffer buffer) {
+            // Utf8 rejects unpaired surrogates where getBytes would replace them, so encode agrees with encodedLength
+            // and two different strings never share an encoding
+            final int length = Utf8.encodedLength(key);
+            final byte[] bytes = key.getBytes(Charsets.UTF_8);
+            Varints.writeUnsignedInt(buffer, length);
+            buffer.put(bytes);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            // Check the length against the buffer before allocating, so that a corrupt length cannot exhaust the heap
+            final int length = Varints.readUnsignedInt(buffer);
+            checkArgument(length >= 0, "Malformed string length");
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, Charsets.UTF_8);
+        }
+    };
+
+    /**
+     * Returns a codec that encodes integers as four big-endian bytes.
+     *
+     * @return a codec for integer keys
+     */
+    public static KeyCodec<Integer> integers() {
+        return INTEGERS;
+    }
+
+    /**
+     * Returns a codec that encodes longs as eight big-endian bytes.
+     *
+     * @return a codec for long keys
+     */
+    public static KeyCodec<Long> longs() {
+        return LONGS;
+    }
+
+    /**
+     * Returns a codec that encodes strings as their UTF-8 bytes preceded by the byte count as a variable-length
+     * integer. Strings that contain an unpaired surrogate have no UTF-8 encoding, so both {@link
+     * KeyCodec#encodedLength(Object)} and {@link KeyCodec#encode(Object, ByteBuffer)} throw an {@link
+     * IllegalArgumentException} for them.
+     *
+     * @return a codec for string keys
+     */
+    public static KeyCodec<String> strings() {
+        return STRINGS;
+    }
+}
@@ -0,0 +1,194 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A collection that maps keys to the number of occurrences of those keys, with occurrence counts stored as {@code
+ * long} values.
+ * <p/>
+ * This interface has the same operations as {@link CountingMap} and should be used instead of it when counts can
+ * exceed {@link Integer#MAX_VALUE}, for instance when counting bytes rather than events.
+ *
+ * @param <T> the type of key used by the map
+ * @see CountingMap
+ */
+public interface LongCountingMap<T> {
+
+    /**
+     * Increments the occurrence count for the given key by one. If the key is not present in the map yet, it will be
+     * put in the map with an occurrence count of one.
+     *
+     * @param key the key to increment the occurrence count
+     *
+     * @return the new occurrence count for the given key
+     */
+    long incrementCount(T key);
+
+    /**
+     * Increments the occurrence count for the given key by the given number. If the key is not present in the map yet,
+     * it will be put in the map with an occurrence count equal to the given number.
+     *
+     * @param key the key to increment the occurrence count
+     * @param countsToAdd the number to add to the occurrence count
+     *
+     * @return the new occurrence count for the given key
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative
+     */
+    long incrementCount(T key, long countsToAdd) throws IllegalArgumentException;
+
+    /**
+     * Increments the occurrence count of each key in the given iterable by the number of times each key appears in the
+     * iterable.
+     * <p/>
+     * For instance, if the map contains the following keys and occurrence counts:<br/>["bob" = 2, "sally" = 1]
+     * <p/>
+     * And the given iterable contains the following values:<br/>["bob, "joe", "bob"]
+     * <p/>
+     * Then after the invocation of this method the map will have the following keys and occurrence counts:<br/> ["bob"
+     * = 4, "sally" = 1, "joe" = 1]
+     *
+     * @param keys the keys to increment the occurrence counts
+     */
+    void incrementCounts(Iterable<T> keys);
+
+    /**
+     * Merges the keys and occurrence counts from the given map into the current map.
+     *
+     * @param otherCounts the given map
+     */
+    void mergeCounts(LongCountingMap<T> otherCounts);
+
+    /**
+     * Returns the occurrence count for the given key. If the given key is not contained in the map, {@code 0} will be
+     * returned as the occurrence count.
+     *
+     * @param key the given key
+     *
+     * @return the occurrence count for the given key or {@code 0} if the key is not in the map.
+     */
+    long getCount(T key);
+
+    /**
+     * Returns an immutable map with the keys and occurrence counts from the current map.
+     *
+     * @return a map from keys to occurrence counts
+     */
+    Map<T, Long> getCounts();
+
+    /**
+     * Performs the given action for each key in the map along with its occurrence count, without boxing the counts.
+     * Unlike {@link #getCounts()}, this method does not copy the map, so it is the preferred way to visit every key of
+     * a large map. No guarantee is made as to the order in which keys are visited. The map must not be modified by the
+     * action.
+     *
+     * @param action the action to perform for each key and occurrence count
+     */
+    void forEachCount(ObjLongConsumer<? super T> action);
+
+    /**
+     * Returns a key with the highest count if one exists. In case of ties, no guarantee is made as to which key will be
+     * returned.
+     *
+     * @return a key with the highest count or {@link Optional#absent()} if the map is empty
+     */
+    Optional<T> getKeyWithHighestCount();
+
+    /**
+     * Returns the keys with the highest counts if they exist. No order is guaranteed for the keys.
+     *
+     * @return the keys with the highest count or an empty set if the map is empty
+     */
+    Set<T> getKeysWithHighestCount();
+
+    /**
+     * Returns the key with the lowest count if one exists. The returned key will have a count greater than zero. In
+     * case of ties, no guarantee is made as to which key will be returned.
+     *
+     * @return a key with the lowest count or {@link Optional#absent()} if the map is empty
+     */
+    Optional<T> getKeyWithLowestCount();
+
+    /**
+     * Returns the keys with the lowest count if they exist.
+     *
+     * @return the keys with the lowest count or an empty set if the map is empty
+     */
+    Set<T> getKeysWithLowestCount();
+
+    /**
+     * Returns up to {@code k} keys with the highest counts, ordered from highest to lowest count. If the map has fewer
+     * than {@code k} keys, every key is returned. In case of ties, no guarantee is made as to which keys will be
+     * returned or in which order tied keys will appear.
+     *
+     * @param k the maximum number of keys to return
+     *
+     * @return the keys with the highest counts in descending order of count
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    List<T> topK(int k) throws IllegalArgumentException;
+
+    /**
+     * Returns up to {@code k} keys with the lowest counts, ordered from lowest to highest count. If the map has fewer
+     * than {@code k} keys, every key is returned. In case of ties, no guarantee is made as to which keys will be
+     * returned or in which order tied keys will appear.
+     *
+     * @param k the maximum number of keys to return
+     *
+     * @return the keys with the lowest counts in ascending order of count
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    List<T> bottomK(int k) throws IllegalArgumentException;
+
+    /**
+     * Returns the rank of the given key, which is one more than the number of keys with a strictly higher count. The
+     * keys with the highest count therefore have rank {@code 1}, and keys with equal counts share the same rank.
+     *
+     * @param key the given key
+     *
+     * @return the rank of the given key or {@code 0} if the key is not in the map
+     */
+    int getRank(T key);
+
+    /**
+     * Returns whether the given {@link LongCountingMap} is subsumed by the current {@link LongCountingMap}. By
+     * definition, map {@code A} subsumes map {@code B} if and only if every key in {@code B} is also in {@code A} and
+     * the count for every key in {@code B} is less than or equal to the corresponding count for that key in {@code A}.
+     * An empty map is subsumed by any other map.
+     *
+     * @param other the other {@code LongCountingMap}
+     *
+     * @return whether the current map subsumes the given map.
+     */
+    boolean subsumes(LongCountingMap<T> other);
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the number of keys
+     */
+    int size();
+
+    /**
+     * Returns whether the current map has no keys.
+     *
+     * @return {@code true} if the current map has no keys, {@code false} otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns whether the given key is contained in the current map. This is equivalent to {@code getCount(key) > 0}.
+     *
+     * @param key the given key
+     *
+     * @return whether the given key is contained in the current map.
+     */
+    boolean containsKey(T key);
+}
@@ -0,0 +1,200 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link LongCountingMap} using an open-addressing hash table with primitive {@code long} counts.
+ * <p/>
+ * The map shares its table with {@link OpenHashCountingMap}: keys and counts are stored in parallel {@code Object[]}
+ * and {@code long[]} arrays and collisions are resolved with linear probing, so counts are never boxed and {@link
+ * #incrementCount(Object, long)} allocates nothing unless the table needs to grow.
+ * <p/>
+ * This class has constant-time performance for {@link #incrementCount(Object)}, {@link #incrementCount(Object, long)},
+ * {@link #containsKey(Object)}, {@link #getCount(Object)}, {@link #getKeyWithHighestCount()}, and {@link #size()}. The
+ * other extremum and ranked queries require a full scan of the table.
+ * <p/>
+ * This map does not permit {@code null} keys.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class LongOpenHashCountingMap<T> implements LongCountingMap<T> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    private final OpenHashTable.OfLong<T> table;
+    private T keyWithHighestCount = null;
+    private long highestCount = -1;
+
+    /**
+     * Creates an empty counting map.
+     */
+    public LongOpenHashCountingMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty counting map that can hold the given number of keys without growing.
+     *
+     * @param expectedSize the number of keys the map is expected to hold
+     *
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public LongOpenHashCountingMap(int expectedSize) {
+        table = new OpenHashTable.OfLong<>(expectedSize);
+    }
+
+    /**
+     * Creates a counting map with initial occurrence counts based on the given iterable.
+     *
+     * @param keys the given iterable
+     *
+     * @throws IllegalArgumentException if {@code keys} contains {@code null}
+     */
+    public LongOpenHashCountingMap(Iterable<T> keys) {
+        this(DEFAULT_EXPECTED_SIZE);
+        incrementCounts(keys);
+    }
+
+    @Override
+    public long incrementCount(T key) {
+        return incrementCount(key, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative or {@code key} is {@code null}
+     */
+    @Override
+    public long incrementCount(T key, long countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+
+        final int index = table.slotFor(key);
+        final long newCount;
+        if (table.keys[index] != null) {
+            newCount = table.counts[index] + countsToAdd;
+            table.counts[index] = newCount;
+        } else {
+            newCount = countsToAdd;
+            table.counts[index] = newCount;
+            table.add(index, key);
+        }
+        if (newCount > highestCount) {
+            highestCount = newCount;
+            keyWithHighestCount = key;
+        }
+        return newCount;
+    }
+
+    @Override
+    public void incrementCounts(Iterable<T> keys) {
+        for (final T key : keys) {
+            incrementCount(key);
+        }
+    }
+
+    @Override
+    public void mergeCounts(LongCountingMap<T> otherCounts) {
+        // The merged map has at least as many keys as the larger map, so grow once up front
+        table.ensureCapacity(otherCounts.size());
+        otherCounts.forEachCount(this::incrementCount);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachCount(ObjLongConsumer<? super T> action) {
+        final Object[] keys = table.keys;
+        final long[] counts = table.counts;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((T) keys[i], counts[i]);
+            }
+        }
+    }
+
+    @Override
+    public long getCount(T key) {
+        final int index = table.find(key);
+        if (index < 0) {
+            return 0;
+        }
+        return table.counts[index];
+    }
+
+    @Override
+    public Map<T, Long> getCounts() {
+        final ImmutableMap.Builder<T, Long> builder = ImmutableMap.builder();
+        forEachCount(builder::put);
+        return builder.build();
+    }
+
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        return Optional.fromNullable(keyWithHighestCount);
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        return table.keysWithCount(highestCount);
+    }
+
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        return table.keyWithLowestCount();
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        return table.keysWithLowestCount();
+    }
+
+    @Override
+    public List<T> topK(int k) throws IllegalArgumentException {
+        return table.topK(k);
+    }
+
+    @Override
+    public List<T> bottomK(int k) throws IllegalArgumentException {
+        return table.bottomK(k);
+    }
+
+    @Override
+    public int getRank(T key) {
+        return table.getRank(key);
+    }
+
+    @Override
+    public boolean subsumes(LongCountingMap<T> other) {
+        final boolean[] subsumed = {true};
+        other.forEachCount((key, count) -> {
+            if (subsumed[0] && count > getCount(key)) {
+                subsumed[0] = false;
+            }
+        });
+        return subsumed[0];
+    }
+
+    @Override
+    public int size() {
+        return table.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        return table.find(key) >= 0;
+    }
+}
@@ -0,0 +1,418 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Implements {@link CountingMap} using an open-addressing hash table that lives in a memory-mapped file.
+ * <p/>
+ * Every key occupies a fixed-width record holding a hash of the encoded key, the count, and the key bytes produced by
+ * a {@link KeyCodec}, padded with zeros to the key width chosen when the file is created. Because the table is the file
+ * itself, counts survive restarts without any serialization step, opening an existing file only maps it into memory,
+ * and several processes on the same host can map the same file. Call {@link #flush()} to force changes to storage.
+ * <p/>
+ * The number of keys is fixed when the file is created: {@link #incrementCount(Object, int)} throws {@link
+ * IllegalStateException} when a new key would exceed that capacity. A map opened with {@link #openReadOnly(Path,
+ * KeyCodec)} throws {@link UnsupportedOperationException} on every modification. Readers of a file that is being
+ * written by another process observe the writer's changes without any ordering guarantee.
+ * <p/>
+ * This class has constant-time performance for {@link #incrementCount(Object)}, {@link #incrementCount(Object, int)},
+ * {@link #containsKey(Object)}, {@link #getCount(Object)}, and {@link #size()}. The highest-count and lowest-count
+ * queries as well as {@link #getCounts()} require a full scan of the table and decode every key they return. Instances
+ * are not thread-safe, even for queries, as keys are encoded into a shared scratch buffer.
+ * <p/>
+ * This map does not permit {@code null} keys. The whole file must fit in a single mapping, so the table is limited to
+ * 2 GB.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class MappedCountingMap<T> extends AbstractCountingMap<T> implements Flushable {
+
+    private static final int MAGIC = 0x4D43_4D31;
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int KEY_WIDTH_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SLOTS_OFFSET = 16;
+    private static final int SIZE_OFFSET = 20;
+    private static final int HEADER_SIZE = 32;
+
+    private static final int RECORD_HASH_OFFSET = 0;
+    private static final int RECORD_COUNT_OFFSET = 4;
+    private static final int RECORD_KEY_OFFSET = 8;
+
+    private final KeyCodec<T> codec;
+    private final MappedByteBuffer buffer;
+    private final boolean readOnly;
+    private final int keyWidth;
+    private final int recordSize;
+    private final int capacity;
+    private final int mask;
+    private final ByteBuffer scratch;
+
+    private MappedCountingMap(KeyCodec<T> codec, MappedByteBuffer buffer, boolean readOnly) {
+        this.codec = codec;
+        this.buffer = buffer;
+        this.readOnly = readOnly;
+        this.keyWidth = buffer.getInt(KEY_WIDTH_OFFSET);
+        this.recordSize = RECORD_KEY_OFFSET + keyWidth;
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.mask = buffer.getInt(SLOTS_OFFSET) - 1;
+        this.scratch = ByteBuffer.allocate(keyWidth);
+    }
+
+    /**
+     * Checks the header of an existing file before it is used, so that a file that is not a counting map file is
+     * rejected with an {@link IllegalArgumentException} and a truncated or corrupted one with an {@link IOException}
+     * rather than with an error on the first access to a record.
+     */
+    private static MappedByteBuffer checkHeader(MappedByteBuffer buffer) throws IOException {
+        checkArgument(buffer.capacity() >= HEADER_SIZE && buffer.getInt(MAGIC_OFFSET) == MAGIC,
+                "Not a counting map file");
+        checkArgument(buffer.getInt(VERSION_OFFSET) == VERSION, "Unsupported counting map file version");
+
+        final int keyWidth = buffer.getInt(KEY_WIDTH_OFFSET);
+        final int capacity = buffer.getInt(CAPACITY_OFFSET);
+        final int slots = buffer.getInt(SLOTS_OFFSET);
+        final int size = buffer.getInt(SIZE_OFFSET);
+        if (keyWidth <= 0 || capacity <= 0 || slots <= capacity || Integer.bitCount(slots) != 1) {
+            throw new IOException(String.format(
+                    "Corrupt counting map header: key width %d, capacity %d, slots %d", keyWidth, capacity, slots));
+        }
+        final long expectedSize = HEADER_SIZE + (long) slots * (RECORD_KEY_OFFSET + keyWidth);
+        if (expectedSize != buffer.capacity()) {
+            throw new IOException(String.format("Counting map file is %d bytes but its header describes %d bytes",
+                    buffer.capacity(), expectedSize));
+        }
+        if (size < 0 || size > capacity) {
+            throw new IOException(String.format("Corrupt counting map header: size %d, capacity %d", size, capacity));
+        }
+        return buffer;
+    }
+
+    /**
+     * Creates a new, empty counting map in the given file, replacing the file if it already exists.
+     *
+     * @param file the file to create
+     * @param codec the codec used to encode keys
+     * @param keyWidth the maximum encoded length of a key in bytes
+     * @param capacity the maximum number of keys the map can hold
+     * @param <T> the type of key used by the map
+     *
+     * @return a writable counting map backed by the given file
+     *
+     * @throws IllegalArgumentException if {@code keyWidth} or {@code capacity} is not positive or the table would not
+     * fit in a single mapping
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static <T> MappedCountingMap<T> create(Path file, KeyCodec<T> codec, int keyWidth, int capacity)
+            throws IOException {
+        checkArgument(codec != null);
+        checkArgument(keyWidth > 0);
+        checkArgument(capacity > 0);
+
+        // Keep the table at most half full so that probe sequences stay short
+        final long slots = Long.highestOneBit(2L * capacity - 1) << 1;
+        final long fileSize = HEADER_SIZE + slots * (RECORD_KEY_OFFSET + keyWidth);
+        checkArgument(fileSize <= Integer.MAX_VALUE, "Counting map is too large to be mapped");
+
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.putInt(KEY_WIDTH_OFFSET, keyWidth);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putInt(SLOTS_OFFSET, (int) slots);
+            buffer.putInt(SIZE_OFFSET, 0);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            return new MappedCountingMap<>(codec, buffer, false);
+        }
+    }
+
+    /**
+     * Opens an existing counting map file for reading and writing.
+     *
+     * @param file the file to open
+     * @param codec the codec used to encode keys, which must match the codec used when the file was created
+     * @param <T> the type of key used by the map
+     *
+     * @return a writable counting map backed by the given file
+     *
+     * @throws IllegalArgumentException if the file is not a counting map file
+     * @throws IOException if the file cannot be opened or mapped, or if its header does not match its length
+     */
+    public static <T> MappedCountingMap<T> open(Path file, KeyCodec<T> codec) throws IOException {
+        checkArgument(codec != null);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            return new MappedCountingMap<>(codec, checkHeader(buffer), false);
+        }
+    }
+
+    /**
+     * Opens an existing counting map file for reading only. The file may be opened this way by any number of
+     * processes at the same time.
+     *
+     * @param file the file to open
+     * @param codec the codec used to encode keys, which must match the codec used when the file was created
+     * @param <T> the type of key used by the map
+     *
+     * @return a read-only counting map backed by the given file
+     *
+     * @throws IllegalArgumentException if the file is not a counting map file
+     * @throws IOException if the file cannot be opened or mapped, or if its header does not match its length
+     */
+    public static <T> MappedCountingMap<T> openReadOnly(Path file, KeyCodec<T> codec) throws IOException {
+        checkArgument(codec != null);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCountingMap<>(codec, checkHeader(buffer), true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative, {@code key} is {@code null}, or the encoded
+     * key is longer than the key width of the file
+     * @throws IllegalStateException if {@code key} is new and the map is already at capacity
+     * @throws UnsupportedOperationException if the map was opened read-only
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkWritable();
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+        checkArgument(codec.encodedLength(key) <= keyWidth, "Encoded key is wider than the key width");
+
+        final int slot = find(key);
+        if (slot >= 0) {
+            final int countOffset = recordOffset(slot) + RECORD_COUNT_OFFSET;
+            final int newCount = buffer.getInt(countOffset) + countsToAdd;
+            buffer.putInt(countOffset, newCount);
+            return newCount;
+        }
+
+        final int size = size();
+        checkState(size < capacity, "Mapped counting map is full");
+        final int offset = recordOffset(-1 - slot);
+        for (int i = 0; i < keyWidth; i++) {
+            buffer.put(offset + RECORD_KEY_OFFSET + i, scratch.get(i));
+        }
+        buffer.putInt(offset + RECORD_COUNT_OFFSET, countsToAdd);
+        // The hash is written last as a non-zero hash is what marks the record as occupied
+        buffer.putInt(offset + RECORD_HASH_OFFSET, hashOfScratch());
+        buffer.putInt(SIZE_OFFSET, size + 1);
+        return countsToAdd;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Counting map was opened read-only");
+        }
+    }
+
+    /**
+     * Returns the slot of the given key, or {@code -1 - slot} where {@code slot} is the empty slot at which the key
+     * would be inserted. The encoded key is left in {@link #scratch}.
+     */
+    private int find(T key) {
+        final byte[] bytes = scratch.array();
+        Arrays.fill(bytes, (byte) 0);
+        scratch.clear();
+        codec.encode(key, scratch);
+
+        final int hash = hashOfScratch();
+        int slot = hash & mask;
+        int recordHash;
+        while ((recordHash = buffer.getInt(recordOffset(slot) + RECORD_HASH_OFFSET)) != 0) {
+            if (recordHash == hash && keyEquals(slot, bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1 - slot;
+    }
+
+    private boolean keyEquals(int slot, byte[] bytes) {
+        final int keyOffset = recordOffset(slot) + RECORD_KEY_OFFSET;
+        for (int i = 0; i < keyWidth; i++) {
+            if (buffer.get(keyOffset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a non-zero hash of the encoded key in {@link #scratch}. The hash depends only on the encoded bytes, so it
+     * is stable across processes regardless of how the key type implements {@link Object#hashCode()}.
+     */
+    private int hashOfScratch() {
+        final byte[] bytes = scratch.array();
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < keyWidth; i++) {
+            hash = (hash ^ bytes[i]) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private int recordOffset(int slot) {
+        return HEADER_SIZE + slot * recordSize;
+    }
+
+    private T keyAt(int slot) {
+        final ByteBuffer record = buffer.duplicate();
+        record.position(recordOffset(slot) + RECORD_KEY_OFFSET);
+        record.limit(record.position() + keyWidth);
+        return codec.decode(record);
+    }
+
+    private int countAt(int slot) {
+        return buffer.getInt(recordOffset(slot) + RECORD_COUNT_OFFSET);
+    }
+
+    private boolean isOccupied(int slot) {
+        return buffer.getInt(recordOffset(slot) + RECORD_HASH_OFFSET) != 0;
+    }
+
+    @Override
+    public int getCount(T key) {
+        if (key == null || codec.encodedLength(key) > keyWidth) {
+            return 0;
+        }
+        final int slot = find(key);
+        if (slot < 0) {
+            return 0;
+        }
+        return countAt(slot);
+    }
+
+    @Override
+    public Map<T, Integer> getCounts() {
+        final ImmutableMap.Builder<T, Integer> counts = ImmutableMap.builder();
+        for (int slot = 0; slot <= mask; slot++) {
+            if (isOccupied(slot)) {
+                counts.put(keyAt(slot), countAt(slot));
+            }
+        }
+        return counts.build();
+    }
+
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        for (int slot = 0; slot <= mask; slot++) {
+            if (isOccupied(slot)) {
+                action.accept(keyAt(slot), countAt(slot));
+            }
+        }
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        int highestCount = Integer.MIN_VALUE;
+        final Set<Integer> slots = new HashSet<>();
+        for (int slot = 0; slot <= mask; slot++) {
+            if (!isOccupied(slot)) {
+                continue;
+            }
+            final int count = countAt(slot);
+            if (count > highestCount) {
+                highestCount = count;
+                slots.clear();
+                slots.add(slot);
+            } else if (count == highestCount) {
+                slots.add(slot);
+            }
+        }
+        return keysAt(slots);
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        int lowestCount = Integer.MAX_VALUE;
+        final Set<Integer> slots = new HashSet<>();
+        for (int slot = 0; slot <= mask; slot++) {
+            if (!isOccupied(slot)) {
+                continue;
+            }
+            final int count = countAt(slot);
+            if (count < lowestCount) {
+                lowestCount = count;
+                slots.clear();
+                slots.add(slot);
+            } else if (count == lowestCount) {
+                slots.add(slot);
+            }
+        }
+        return keysAt(slots);
+    }
+
+    private Set<T> keysAt(Set<Integer> slots) {
+        final ImmutableSet.Builder<T> keys = ImmutableSet.builder();
+        for (final int slot : slots) {
+            keys.add(keyAt(slot));
+        }
+        return keys.build();
+    }
+
+    @Override
+    public int size() {
+        return buffer.getInt(SIZE_OFFSET);
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        return key != null && codec.encodedLength(key) <= keyWidth && find(key) >= 0;
+    }
+
+    /**
+     * Returns the maximum number of keys the map can hold.
+     *
+     * @return the capacity of the map
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the maximum encoded length of a key in bytes.
+     *
+     * @return the key width of the map
+     */
+    public int getKeyWidth() {
+        return keyWidth;
+    }
+
+    /**
+     * Forces any changes made to the map to be written to the underlying file.
+     */
+    @Override
+    public void flush() {
+        if (!readOnly) {
+            buffer.force();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tyleryates.util;
+
+/**
+ * Represents a predicate of an object-valued and an {@code int}-valued argument. This is the {@code (reference, int)}
+ * specialization of {@link java.util.function.BiPredicate}, in the same way that {@link
+ * java.util.function.ObjIntConsumer} specializes {@link java.util.function.BiConsumer}.
+ *
+ * @param <T> the type of the object argument to the predicate
+ */
+@FunctionalInterface
+interface ObjIntPredicate<T> {
+
+    /**
+     * Evaluates this predicate on the given arguments.
+     *
+     * @param t the first input argument
+     * @param value the second input argument
+     *
+     * @return {@code true} if the input arguments match the predicate, {@code false} otherwise
+     */
+    boolean test(T t, int value);
+}
@@ -0,0 +1,211 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link CountingMap} using an open-addressing hash table with primitive counts.
+ * <p/>
+ * Keys and counts are stored in parallel {@code Object[]} and {@code int[]} arrays and collisions are resolved with
+ * linear probing. Unlike {@link HashCountingMap}, counts are never boxed and no entry objects are created, so {@link
+ * #incrementCount(Object)} and {@link #incrementCount(Object, int)} perform a single probe sequence and allocate
+ * nothing unless the table needs to grow.
+ * <p/>
+ * This class has constant-time performance for {@link #incrementCount(Object)}, {@link #incrementCount(Object, int)},
+ * {@link #containsKey(Object)}, {@link #getCount(Object)}, {@link #getKeyWithHighestCount()}, and {@link #size()}. The
+ * {@link #getKeysWithHighestCount()}, {@link #getKeyWithLowestCount()}, and {@link #getKeysWithLowestCount()}
+ * operations and the ranked queries require a full scan of the table, but unlike the implementations in {@link
+ * AbstractCountingMap} they do not copy the counts.
+ * <p/>
+ * This map does not permit {@code null} keys.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class OpenHashCountingMap<T> extends AbstractCountingMap<T> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    private final OpenHashTable.OfInt<T> table;
+    private T keyWithHighestCount = null;
+    private int highestCount = -1;
+
+    /**
+     * Creates an empty counting map.
+     */
+    public OpenHashCountingMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty counting map that can hold the given number of keys without growing.
+     *
+     * @param expectedSize the number of keys the map is expected to hold
+     *
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public OpenHashCountingMap(int expectedSize) {
+        table = new OpenHashTable.OfInt<>(expectedSize);
+    }
+
+    /**
+     * Creates a counting map with initial occurrence counts based on the given iterable.
+     *
+     * @param keys the given iterable
+     *
+     * @throws IllegalArgumentException if {@code keys} contains {@code null}
+     */
+    public OpenHashCountingMap(Iterable<T> keys) {
+        this(DEFAULT_EXPECTED_SIZE);
+        incrementCounts(keys);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative or {@code key} is {@code null}
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+
+        final int index = table.slotFor(key);
+        final int newCount;
+        if (table.keys[index] != null) {
+            newCount = table.counts[index] + countsToAdd;
+            table.counts[index] = newCount;
+        } else {
+            newCount = countsToAdd;
+            table.counts[index] = newCount;
+            table.add(index, key);
+        }
+        if (newCount > highestCount) {
+            highestCount = newCount;
+            keyWithHighestCount = key;
+        }
+        return newCount;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void mergeCounts(CountingMap<T> otherCounts) {
+        if (!(otherCounts instanceof OpenHashCountingMap)) {
+            super.mergeCounts(otherCounts);
+            return;
+        }
+
+        final OpenHashTable.OfInt<T> other = ((OpenHashCountingMap<T>) otherCounts).table;
+        final Object[] keysToMerge = other.keys;
+        final int[] countsToMerge = other.counts;
+        // The merged map has at least as many keys as the larger map, so grow once up front
+        table.ensureCapacity(other.size);
+        for (int i = 0; i < keysToMerge.length; i++) {
+            if (keysToMerge[i] != null) {
+                incrementCount((T) keysToMerge[i], countsToMerge[i]);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        final Object[] keys = table.keys;
+        final int[] counts = table.counts;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((T) keys[i], counts[i]);
+            }
+        }
+    }
+
+    @Override
+    public int getCount(T key) {
+        final int index = table.find(key);
+        if (index < 0) {
+            return 0;
+        }
+        return table.counts[index];
+    }
+
+    @Override
+    public Map<T, Integer> getCounts() {
+        final ImmutableMap.Builder<T, Integer> builder = ImmutableMap.builder();
+        forEachCount(builder::put);
+        return builder.build();
+    }
+
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        return Optional.fromNullable(keyWithHighestCount);
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        return table.keysWithCount(highestCount);
+    }
+
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        return table.keyWithLowestCount();
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        return table.keysWithLowestCount();
+    }
+
+    @Override
+    public List<T> topK(int k) throws IllegalArgumentException {
+        return table.topK(k);
+    }
+
+    @Override
+    public List<T> bottomK(int k) throws IllegalArgumentException {
+        return table.bottomK(k);
+    }
+
+    @Override
+    public int getRank(T key) {
+        return table.getRank(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    boolean allCountsMatch(ObjIntPredicate<? super T> predicate) {
+        final Object[] keys = table.keys;
+        final int[] counts = table.counts;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && !predicate.test((T) keys[i], counts[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Removes every key from the map while keeping the capacity of its table, so that a map that is refilled to a
+     * similar size does not need to grow again.
+     */
+    void clear() {
+        table.clear();
+        keyWithHighestCount = null;
+        highestCount = -1;
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        return table.find(key) >= 0;
+    }
+}
@@ -0,0 +1,383 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The open-addressing hash table behind {@link OpenHashCountingMap} and {@link LongOpenHashCountingMap}.
+ * <p/>
+ * Keys are stored in an {@code Object[]} array and their counts in a parallel primitive array of type {@code A}, and
+ * collisions are resolved with linear probing. The table owns the probing, growth, and the queries that scan every
+ * key, while the maps read and write the counts array directly so that counts are never boxed. {@link OfInt} and
+ * {@link OfLong} store {@code int} and {@code long} counts.
+ * <p/>
+ * The table does not permit {@code null} keys, which mark empty slots.
+ *
+ * @param <T> the type of key stored in the table
+ * @param <A> the type of array that stores the counts
+ */
+abstract class OpenHashTable<T, A> {
+
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    Object[] keys;
+    A counts;
+    int size = 0;
+    private int mask;
+    private int maxSize;
+
+    /**
+     * Creates an empty table that can hold the given number of keys without growing.
+     *
+     * @param expectedSize the number of keys the table is expected to hold
+     *
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    OpenHashTable(int expectedSize) {
+        checkArgument(expectedSize >= 0);
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns a zeroed counts array with the given length.
+     */
+    abstract A newCounts(int capacity);
+
+    /**
+     * Returns the count in the given slot, widened to a {@code long}.
+     */
+    abstract long countAt(int index);
+
+    /**
+     * Copies the count in the given slot of the given counts array to the given slot of the current counts array.
+     */
+    abstract void copyCount(A from, int fromIndex, int toIndex);
+
+    /**
+     * Returns the slot index of the given key or {@code -1} if the key is not in the table.
+     */
+    int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        final int index = slotFor(key);
+        return keys[index] == null ? -1 : index;
+    }
+
+    /**
+     * Returns the slot that holds the given key, or the empty slot where the key belongs if it is not in the table.
+     */
+    int slotFor(Object key) {
+        int index = indexFor(key, mask);
+        Object current;
+        while ((current = keys[index]) != null) {
+            if (current == key || current.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Puts the given key in the given empty slot, whose count must already be set, and grows the table if it is now
+     * more than half full. Slot indexes obtained before this call are no longer valid after it.
+     */
+    void add(int index, Object key) {
+        keys[index] = key;
+        if (++size > maxSize) {
+            resize();
+        }
+    }
+
+    /**
+     * Grows the table until it can hold the given number of keys without growing again.
+     */
+    void ensureCapacity(int expectedSize) {
+        while (maxSize < expectedSize) {
+            resize();
+        }
+    }
+
+    /**
+     * Removes every key from the table while keeping its capacity. The counts are left as they are, since the count of
+     * a slot is always set before a key is added to it.
+     */
+    void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts every key.
+     */
+    private void resize() {
+        checkState(keys.length < MAXIMUM_CAPACITY, "Counting map is too large");
+
+        final Object[] oldKeys = keys;
+        final A oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            final Object key = oldKeys[i];
+            if (key != null) {
+                int index = indexFor(key, mask);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                copyCount(oldCounts, i, index);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        counts = newCounts(capacity);
+        mask = capacity - 1;
+        maxSize = capacity / 2;
+    }
+
+    /**
+     * Returns the keys whose count is the given count.
+     */
+    @SuppressWarnings("unchecked")
+    Set<T> keysWithCount(long count) {
+        final Set<T> keysWithCount = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && countAt(i) == count) {
+                keysWithCount.add((T) keys[i]);
+            }
+        }
+        return ImmutableSet.copyOf(keysWithCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    Optional<T> keyWithLowestCount() {
+        long lowestCount = Long.MAX_VALUE;
+        T keyWithLowestCount = null;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && (keyWithLowestCount == null || countAt(i) < lowestCount)) {
+                lowestCount = countAt(i);
+                keyWithLowestCount = (T) keys[i];
+            }
+        }
+        return Optional.fromNullable(keyWithLowestCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    Set<T> keysWithLowestCount() {
+        long lowestCount = Long.MAX_VALUE;
+        final Set<T> keysWithLowestCount = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            final long count = countAt(i);
+            if (count < lowestCount) {
+                lowestCount = count;
+                keysWithLowestCount.clear();
+                keysWithLowestCount.add((T) keys[i]);
+            } else if (count == lowestCount) {
+                keysWithLowestCount.add((T) keys[i]);
+            }
+        }
+        return ImmutableSet.copyOf(keysWithLowestCount);
+    }
+
+    /**
+     * Returns up to {@code k} keys with the highest counts in descending order of count. The slots of the best keys are
+     * kept in a heap of at most {@code k} slot indexes, so neither the counts nor the keys are copied.
+     */
+    List<T> topK(int k) {
+        return selectK(k, true);
+    }
+
+    /**
+     * Returns up to {@code k} keys with the lowest counts in ascending order of count. The slots of the best keys are
+     * kept in a heap of at most {@code k} slot indexes, so neither the counts nor the keys are copied.
+     */
+    List<T> bottomK(int k) {
+        return selectK(k, false);
+    }
+
+    /**
+     * Returns the rank of the given key, which is one more than the number of keys with a strictly higher count, or
+     * {@code 0} if the key is not in the table.
+     */
+    int getRank(Object key) {
+        final int index = find(key);
+        if (index < 0) {
+            return 0;
+        }
+        final long count = countAt(index);
+        int rank = 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && countAt(i) > count) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns up to {@code k} keys with the highest or lowest counts, ordered from the best to the worst, with ties
+     * going to the key in the lower slot. The heap holds the slot of the worst key kept so far at its root, which a
+     * key only replaces if its count is strictly better.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> selectK(int k, boolean highest) {
+        checkArgument(k >= 0);
+
+        final int[] heap = new int[Math.min(k, size)];
+        int heapSize = 0;
+        for (int i = 0; i < keys.length && heap.length > 0; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, highest);
+            } else if (isWorse(heap[0], i, highest)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, highest);
+            }
+        }
+
+        // Removing the root repeatedly yields the slots from the worst to the best
+        final Object[] selected = new Object[heapSize];
+        while (heapSize > 0) {
+            selected[heapSize - 1] = keys[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, highest);
+        }
+        return (List<T>) (List<?>) ImmutableList.copyOf(selected);
+    }
+
+    /**
+     * Returns whether the key in the given slot ranks below the key in the other slot: it has a lower count when
+     * selecting the highest counts or a higher count otherwise, or the same count and a higher slot.
+     */
+    private boolean isWorse(int slot, int otherSlot, boolean highest) {
+        final long count = countAt(slot);
+        final long otherCount = countAt(otherSlot);
+        if (count != otherCount) {
+            return highest ? count < otherCount : count > otherCount;
+        }
+        return slot > otherSlot;
+    }
+
+    private void siftUp(int[] heap, int index, boolean highest) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (!isWorse(heap[index], heap[parent], highest)) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize, boolean highest) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                return;
+            }
+            if (child + 1 < heapSize && isWorse(heap[child + 1], heap[child], highest)) {
+                child++;
+            }
+            if (!isWorse(heap[child], heap[index], highest)) {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        final int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+    }
+
+    /**
+     * Returns the smallest power-of-two capacity that keeps the table at most half full for the given size.
+     */
+    static int capacityFor(int expectedSize) {
+        checkArgument(expectedSize <= MAXIMUM_CAPACITY / 2, "Expected size is too large");
+        int capacity = 2;
+        while (capacity / 2 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the home slot for the given key. The hash code is scrambled so that keys with poorly distributed hash
+     * codes do not form long probe sequences.
+     */
+    static int indexFor(Object key, int mask) {
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * A table with {@code int} counts.
+     */
+    static final class OfInt<T> extends OpenHashTable<T, int[]> {
+
+        OfInt(int expectedSize) {
+            super(expectedSize);
+        }
+
+        @Override
+        int[] newCounts(int capacity) {
+            return new int[capacity];
+        }
+
+        @Override
+        long countAt(int index) {
+            return counts[index];
+        }
+
+        @Override
+        void copyCount(int[] from, int fromIndex, int toIndex) {
+            counts[toIndex] = from[fromIndex];
+        }
+    }
+
+    /**
+     * A table with {@code long} counts.
+     */
+    static final class OfLong<T> extends OpenHashTable<T, long[]> {
+
+        OfLong(int expectedSize) {
+            super(expectedSize);
+        }
+
+        @Override
+        long[] newCounts(int capacity) {
+            return new long[capacity];
+        }
+
+        @Override
+        long countAt(int index) {
+            return counts[index];
+        }
+
+        @Override
+        void copyCount(long[] from, int fromIndex, int toIndex) {
+            counts[toIndex] = from[fromIndex];
+        }
+    }
+}
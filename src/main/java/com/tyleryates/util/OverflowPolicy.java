@@ -0,0 +1,48 @@
+package com.tyleryates.util;
+
+/**
+ * Determines what a {@link CountingMap} does when adding to an occurrence count would exceed {@link
+ * Integer#MAX_VALUE}.
+ *
+ * @see HashCountingMap#HashCountingMap(OverflowPolicy)
+ * @see LongCountingMap
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The count wraps around to a negative number, as plain {@code int} arithmetic does.
+     */
+    WRAP {
+        @Override
+        int add(int count, int countsToAdd) {
+            return count + countsToAdd;
+        }
+    },
+
+    /**
+     * The count stops at {@link Integer#MAX_VALUE}.
+     */
+    SATURATE {
+        @Override
+        int add(int count, int countsToAdd) {
+            final int sum = count + countsToAdd;
+            // Both operands are non-negative, so the sum can only overflow into the sign bit
+            return sum < 0 ? Integer.MAX_VALUE : sum;
+        }
+    },
+
+    /**
+     * An {@link ArithmeticException} is thrown and the count is left unchanged.
+     */
+    THROW {
+        @Override
+        int add(int count, int countsToAdd) {
+            return Math.addExact(count, countsToAdd);
+        }
+    };
+
+    /**
+     * Returns the sum of the given non-negative count and the given non-negative number according to this policy.
+     */
+    abstract int add(int count, int countsToAdd);
+}
@@ -0,0 +1,215 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link CountingMap} over a sliding window of time, so that counts only reflect keys that were counted
+ * recently.
+ * <p/>
+ * The window is divided into a fixed number of equal time slices, each with its own {@link OpenHashCountingMap} of the
+ * counts added during that slice, arranged in a ring. The counts of every live slice are also kept in a single {@link
+ * BucketCountingMap}. When a slice falls out of the window, only its own counts are subtracted from that map and the
+ * slice is cleared and reused, so the window moves forward incrementally and queries never need to combine the slices.
+ * Keys whose counts have all expired are removed from the map.
+ * <p/>
+ * The window advances in steps of one slice, so a count expires between {@code window - window / slices} and {@code
+ * window} after it was added. More slices make the window more precise at the cost of more memory.
+ * <p/>
+ * Every query and update first expires any slices that have fallen out of the window. Apart from that, the costs are
+ * the same as those of {@link BucketCountingMap}. Expiring a slice is linear in the number of distinct keys counted
+ * during that slice.
+ * <p/>
+ * This map does not permit {@code null} keys.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class SlidingWindowCountingMap<T> extends AbstractCountingMap<T> {
+
+    private final Ticker ticker;
+    private final long sliceNanos;
+    private final OpenHashCountingMap<T>[] slices;
+    private final BucketCountingMap<T> counts = new BucketCountingMap<>();
+    private long currentSlice;
+
+    /**
+     * Creates an empty counting map over the given window that uses the system clock.
+     *
+     * @param window the length of the window
+     * @param unit the unit of {@code window}
+     * @param sliceCount the number of slices the window is divided into
+     *
+     * @throws IllegalArgumentException if {@code unit} is {@code null}, {@code sliceCount} is not positive, or {@code
+     * window} is shorter than {@code sliceCount} nanoseconds
+     */
+    public SlidingWindowCountingMap(long window, TimeUnit unit, int sliceCount) {
+        this(window, unit, sliceCount, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates an empty counting map over the given window that reads the time from the given ticker.
+     *
+     * @param window the length of the window
+     * @param unit the unit of {@code window}
+     * @param sliceCount the number of slices the window is divided into
+     * @param ticker the source of time for the window
+     *
+     * @throws IllegalArgumentException if {@code unit} or {@code ticker} is {@code null}, {@code sliceCount} is not
+     * positive, or {@code window} is shorter than {@code sliceCount} nanoseconds
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SlidingWindowCountingMap(long window, TimeUnit unit, int sliceCount, Ticker ticker) {
+        checkArgument(unit != null);
+        checkArgument(ticker != null);
+        checkArgument(sliceCount > 0);
+        checkArgument(unit.toNanos(window) >= sliceCount);
+
+        this.ticker = ticker;
+        this.sliceNanos = unit.toNanos(window) / sliceCount;
+        this.slices = new OpenHashCountingMap[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new OpenHashCountingMap<>();
+        }
+        this.currentSlice = Math.floorDiv(ticker.read(), sliceNanos);
+    }
+
+    /**
+     * Expires every slice that has fallen out of the window since the last call.
+     */
+    private void advance() {
+        final long now = Math.floorDiv(ticker.read(), sliceNanos);
+        if (now <= currentSlice) {
+            return;
+        }
+
+        final long expired = Math.min(now - currentSlice, slices.length);
+        for (long slice = currentSlice + 1; slice <= currentSlice + expired; slice++) {
+            final int index = sliceIndex(slice);
+            slices[index].forEachCount(this::expire);
+            slices[index].clear();
+        }
+        currentSlice = now;
+    }
+
+    private int sliceIndex(long slice) {
+        return (int) Math.floorMod(slice, (long) slices.length);
+    }
+
+    private void expire(T key, int count) {
+        // The decrement removes keys whose count drops to zero, but it is a no-op for a count of zero, which is left
+        // behind by incrementCount(key, 0)
+        if (counts.decrementCount(key, count) == 0) {
+            counts.remove(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative or {@code key} is {@code null}
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+
+        advance();
+        slices[sliceIndex(currentSlice)].incrementCount(key, countsToAdd);
+        return counts.incrementCount(key, countsToAdd);
+    }
+
+    @Override
+    public int getCount(T key) {
+        advance();
+        return counts.getCount(key);
+    }
+
+    @Override
+    public Map<T, Integer> getCounts() {
+        advance();
+        return counts.getCounts();
+    }
+
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        advance();
+        counts.forEachCount(action);
+    }
+
+    @Override
+    boolean allCountsMatch(ObjIntPredicate<? super T> predicate) {
+        advance();
+        return counts.allCountsMatch(predicate);
+    }
+
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        advance();
+        return counts.getKeyWithHighestCount();
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        advance();
+        return counts.getKeysWithHighestCount();
+    }
+
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        advance();
+        return counts.getKeyWithLowestCount();
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        advance();
+        return counts.getKeysWithLowestCount();
+    }
+
+    @Override
+    public List<T> topK(int k) throws IllegalArgumentException {
+        advance();
+        return counts.topK(k);
+    }
+
+    @Override
+    public List<T> bottomK(int k) throws IllegalArgumentException {
+        advance();
+        return counts.bottomK(k);
+    }
+
+    @Override
+    public int getRank(T key) {
+        advance();
+        return counts.getRank(key);
+    }
+
+    @Override
+    public int size() {
+        advance();
+        return counts.size();
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        advance();
+        return counts.containsKey(key);
+    }
+
+    /**
+     * Returns the number of slices the window is divided into.
+     *
+     * @return the number of slices
+     */
+    public int getSliceCount() {
+        return slices.length;
+    }
+}
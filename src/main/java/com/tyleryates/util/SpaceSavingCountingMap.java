@@ -0,0 +1,267 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implements {@link CountingMap} approximately using the Space-Saving algorithm, which tracks the most frequent keys of
+ * a stream in bounded memory.
+ * <p/>
+ * At most {@code capacity} keys are tracked at any time. When a new key arrives and the map is full, the key with the
+ * lowest count is evicted and the new key inherits that count as its starting point. The inherited amount is recorded
+ * as the key's error, so for every tracked key {@code getCount(key) - getError(key) <= trueCount <= getCount(key)}.
+ * Every error is at most {@link #getTotalCount()} divided by the capacity, which means every key whose true count
+ * exceeds that bound is guaranteed to be tracked.
+ * <p/>
+ * The counts of tracked keys are kept in a {@link BucketCountingMap}, so {@link #getKeyWithHighestCount()}, {@link
+ * #getKeysWithHighestCount()}, {@link #topK(int)}, and eviction all run without scanning the map. Keys that are not
+ * tracked have a count of {@code 0} for the purposes of {@link #getCount(Object)}, {@link #containsKey(Object)}, and
+ * {@link #getCounts()}, even though their true count may be as high as the lowest tracked count.
+ * <p/>
+ * This map does not permit {@code null} keys.
+ *
+ * @param <T> the type of key used by the map
+ */
+public class SpaceSavingCountingMap<T> extends AbstractCountingMap<T> {
+
+    private final int capacity;
+    private final BucketCountingMap<T> counts = new BucketCountingMap<>();
+    private final Map<T, Integer> errors = new HashMap<>();
+    private long totalCount = 0;
+
+    /**
+     * Creates an empty map that tracks at most the given number of keys.
+     *
+     * @param capacity the maximum number of keys to track
+     *
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public SpaceSavingCountingMap(int capacity) {
+        checkArgument(capacity > 0);
+        this.capacity = capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned count may be higher than the true count by up to {@link #getError(Object)}.
+     *
+     * @throws IllegalArgumentException if {@code countsToAdd} is negative or {@code key} is {@code null}
+     */
+    @Override
+    public int incrementCount(T key, int countsToAdd) throws IllegalArgumentException {
+        checkArgument(countsToAdd >= 0);
+        checkArgument(key != null);
+
+        totalCount += countsToAdd;
+        if (counts.containsKey(key) || counts.size() < capacity) {
+            return counts.incrementCount(key, countsToAdd);
+        }
+        if (countsToAdd == 0) {
+            // Adding nothing to an untracked key must not evict a key that has actually been seen
+            return 0;
+        }
+
+        final T evictedKey = counts.getKeyWithLowestCount().get();
+        final int lowestCount = counts.remove(evictedKey);
+        errors.remove(evictedKey);
+        if (lowestCount > 0) {
+            errors.put(key, lowestCount);
+        }
+        return counts.incrementCount(key, lowestCount + countsToAdd);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * If the given map is also a {@link SpaceSavingCountingMap}, the two summaries are combined so that the error
+     * bounds of both are preserved: a key missing from a full summary is assumed to have that summary's lowest count,
+     * and only the {@code capacity} keys with the highest combined counts are kept.
+     */
+    @Override
+    public void mergeCounts(CountingMap<T> otherCounts) {
+        if (!(otherCounts instanceof SpaceSavingCountingMap)) {
+            super.mergeCounts(otherCounts);
+            return;
+        }
+
+        final SpaceSavingCountingMap<T> other = (SpaceSavingCountingMap<T>) otherCounts;
+        final int missingCount = lowestCountIfFull();
+        final int otherMissingCount = other.lowestCountIfFull();
+
+        final Set<T> keys = new HashSet<>();
+        counts.forEachCount((key, count) -> keys.add(key));
+        other.counts.forEachCount((key, count) -> keys.add(key));
+        final List<Summary<T>> summaries = new ArrayList<>(keys.size());
+        for (final T key : keys) {
+            final int count = counts.containsKey(key) ? counts.getCount(key) : missingCount;
+            final int error = counts.containsKey(key) ? getError(key) : missingCount;
+            final int otherCount = other.counts.containsKey(key) ? other.counts.getCount(key) : otherMissingCount;
+            final int otherError = other.counts.containsKey(key) ? other.getError(key) : otherMissingCount;
+            summaries.add(new Summary<>(key, count + otherCount, error + otherError));
+        }
+        Collections.sort(summaries, Summary.BY_COUNT_DESCENDING);
+
+        for (final Summary<T> summary : summaries) {
+            counts.remove(summary.key);
+        }
+        errors.clear();
+        for (final Summary<T> summary : summaries.subList(0, Math.min(capacity, summaries.size()))) {
+            counts.incrementCount(summary.key, summary.count);
+            if (summary.error > 0) {
+                errors.put(summary.key, summary.error);
+            }
+        }
+        totalCount += other.totalCount;
+    }
+
+    private int lowestCountIfFull() {
+        if (counts.size() < capacity) {
+            return 0;
+        }
+        return counts.getCount(counts.getKeyWithLowestCount().get());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned count may be higher than the true count by up to {@link #getError(Object)}.
+     */
+    @Override
+    public int getCount(T key) {
+        return counts.getCount(key);
+    }
+
+    /**
+     * Returns the maximum amount by which {@link #getCount(Object)} over-estimates the true count of the given key.
+     *
+     * @param key the given key
+     *
+     * @return the over-estimation error for the given key or {@code 0} if the key is not tracked
+     */
+    public int getError(T key) {
+        final Integer error = errors.get(key);
+        if (error == null) {
+            return 0;
+        }
+        return error;
+    }
+
+    /**
+     * Returns the number of occurrences of the given key that are guaranteed to have happened, which is {@link
+     * #getCount(Object)} minus {@link #getError(Object)}.
+     *
+     * @param key the given key
+     *
+     * @return the guaranteed count for the given key or {@code 0} if the key is not tracked
+     */
+    public int getGuaranteedCount(T key) {
+        return getCount(key) - getError(key);
+    }
+
+    /**
+     * Returns the maximum number of keys tracked by the map.
+     *
+     * @return the capacity of the map
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the sum of every count added to the map, including counts of keys that have since been evicted.
+     *
+     * @return the total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public Map<T, Integer> getCounts() {
+        return counts.getCounts();
+    }
+
+    @Override
+    public void forEachCount(ObjIntConsumer<? super T> action) {
+        counts.forEachCount(action);
+    }
+
+    @Override
+    public Optional<T> getKeyWithHighestCount() {
+        return counts.getKeyWithHighestCount();
+    }
+
+    @Override
+    public Set<T> getKeysWithHighestCount() {
+        return counts.getKeysWithHighestCount();
+    }
+
+    @Override
+    public Optional<T> getKeyWithLowestCount() {
+        return counts.getKeyWithLowestCount();
+    }
+
+    @Override
+    public Set<T> getKeysWithLowestCount() {
+        return counts.getKeysWithLowestCount();
+    }
+
+    @Override
+    public List<T> topK(int k) throws IllegalArgumentException {
+        return counts.topK(k);
+    }
+
+    @Override
+    public List<T> bottomK(int k) throws IllegalArgumentException {
+        return counts.bottomK(k);
+    }
+
+    @Override
+    public int getRank(T key) {
+        return counts.getRank(key);
+    }
+
+    @Override
+    public int size() {
+        return counts.size();
+    }
+
+    @Override
+    public boolean containsKey(T key) {
+        return counts.containsKey(key);
+    }
+
+    /**
+     * The combined count and error of a key while merging two summaries.
+     */
+    private static final class Summary<T> {
+        private static final Comparator<Summary<?>> BY_COUNT_DESCENDING = new Comparator<Summary<?>>() {
+            @Override
+            public int compare(Summary<?> left, Summary<?> right) {
+                return Integer.compare(right.count, left.count);
+            }
+        };
+
+        private final T key;
+        private final int count;
+        private final int error;
+
+        private Summary(T key, int count, int error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
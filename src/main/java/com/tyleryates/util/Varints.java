@@ -0,0 +1,54 @@
+package com.tyleryates.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes unsigned variable-length integers, which store seven bits per byte and use the high bit of each
+ * byte to mark that more bytes follow. Small values therefore take a single byte.
+ */
+final class Varints {
+
+    private Varints() {
+    }
+
+    /**
+     * Returns the number of bytes needed to encode the given value as an unsigned varint.
+     */
+    static int unsignedIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the given value as an unsigned varint at the current position of the given buffer.
+     */
+    static void writeUnsignedInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint from the current position of the given buffer.
+     *
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the varint does
+     * @throws IllegalArgumentException if the varint is longer than five bytes
+     */
+    static int readUnsignedInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -1,15 +1,51 @@
 package com.tyleryates.util;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Provides efficient methods for performing complex string processing operations.
  * <p/>
- * This class is able to handle strings with whitespace characters.
+ * This class is able to handle strings with whitespace characters. The characters of a word are counted into a
+ * primitive histogram when the word is created, so creating a word allocates little beyond the word itself.
+ * <p/>
+ * A word created with {@link #Word(String)} counts each {@code char} of its string, so a character outside the Basic
+ * Multilingual Plane, such as an emoji, counts as two unrelated surrogates. A word created with {@link #Word(String,
+ * WordNormalizer)} normalizes its string and counts each code point instead. Words should only be compared with words
+ * created the same way.
+ * <p/>
+ * Words are immutable, so {@link #of(String)} can hand out a single shared instance for strings that are seen again
+ * and again instead of counting their characters each time.
  */
 public class Word {
+
+    /**
+     * The system property that sets the most words that {@link #of(String)} keeps. It is read once, on the first call
+     * to {@link #of(String)} or {@link #getInternCacheStats()}, so it must be set on the command line or before then. A
+     * value that is not a non-negative integer is ignored.
+     */
+    public static final String INTERN_CACHE_SIZE_PROPERTY = "com.tyleryates.util.Word.internCacheSize";
+
+    /**
+     * The most words that {@link #of(String)} keeps unless {@link #INTERN_CACHE_SIZE_PROPERTY} is set, chosen so that a
+     * working set of a few hundred thousand distinct words fits.
+     */
+    static final int DEFAULT_INTERN_CACHE_SIZE = 300_000;
+
     private final String string;
-    private final CountingMap<Character> characterCount;
+    private final CharacterHistogram characterCount;
+    private final WordNormalizer normalizer;
+    private String signature;
 
     /**
      * Creates a new word from the given string.
@@ -22,19 +58,90 @@ public class Word {
         checkArgument(string != null);
 
         this.string = string;
-        this.characterCount = constructCharacterCount(string);
+        this.characterCount = CharacterHistogram.of(string);
+        this.normalizer = null;
+    }
+
+    /**
+     * Creates a new word from the given string that counts code points rather than {@code char} values. The string is
+     * normalized by the given normalizer first, and strings passed to {@link #canMake(String)} are normalized the same
+     * way.
+     *
+     * @param string the given string
+     * @param normalizer the normalizer to apply to the string
+     *
+     * @throws IllegalArgumentException if {@code string} or {@code normalizer} is {@code null}.
+     * @see WordNormalizer#none()
+     */
+    public Word(String string, WordNormalizer normalizer) {
+        checkArgument(string != null);
+        checkArgument(normalizer != null);
+
+        this.string = normalizer.normalize(string);
+        this.characterCount = CharacterHistogram.ofCodePoints(this.string);
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Creates a word of the characters in the given histogram, in ascending order, that counts characters the same way
+     * as words created with the given normalizer.
+     */
+    private Word(CharacterHistogram characterCount, WordNormalizer normalizer) {
+        this.characterCount = characterCount;
+        this.string = characterCount.toSortedString();
+        this.normalizer = normalizer;
+        this.signature = string;
     }
 
-    private static CountingMap<Character> constructCharacterCount(String string) {
-        final CountingMap<Character> characterCount = new HashCountingMap<>();
-        for (final char ch : string.toCharArray()) {
-            characterCount.incrementCount(ch);
+    /**
+     * Returns a word for the given string, which is shared with other callers that ask for a word for an equal string.
+     * <p/>
+     * Up to {@value #DEFAULT_INTERN_CACHE_SIZE} recently used words are kept in a concurrent cache, or as many as the
+     * {@value #INTERN_CACHE_SIZE_PROPERTY} system property says, so asking again for a word that is still cached
+     * neither counts its characters nor allocates. Less recently used words are evicted when the cache is full and are
+     * created again the next time they are asked for. The result is equivalent to {@code new Word(string)} either way.
+     *
+     * @param string the given string
+     *
+     * @return a word for the given string
+     *
+     * @throws IllegalArgumentException if {@code string} is {@code null}.
+     * @see #getInternCacheStats()
+     */
+    public static Word of(String string) {
+        checkArgument(string != null);
+        return Interned.CACHE.getUnchecked(string);
+    }
+
+    /**
+     * Returns the statistics of the cache behind {@link #of(String)}, such as its hit rate and how many words it has
+     * evicted, for tuning callers that rely on it.
+     *
+     * @return the statistics of the cache of shared words
+     */
+    public static CacheStats getInternCacheStats() {
+        return Interned.CACHE.stats();
+    }
+
+    /**
+     * Returns the size of the cache behind {@link #of(String)} for the given value of {@link
+     * #INTERN_CACHE_SIZE_PROPERTY}, where zero turns the cache off. An invalid value falls back to the default rather
+     * than failing, since the cache is created while a word is being asked for.
+     *
+     * @param configuredSize the value of the property or {@code null} if it is not set or not an integer
+     *
+     * @return the size of the cache of shared words
+     */
+    static int internCacheSize(Integer configuredSize) {
+        if (configuredSize == null || configuredSize < 0) {
+            return DEFAULT_INTERN_CACHE_SIZE;
         }
-        return characterCount;
+        return configuredSize;
     }
 
     /**
-     * Returns the string that the current word was created from.
+     * Returns the string that the current word was created from, after normalization if the word was created with a
+     * normalizer.
      *
      * @return the string the current word was created from
      */
@@ -51,9 +158,14 @@ public class Word {
      * @param string the given string
      *
      * @return whether the given string can be made from the characters in the current word
+     *
+     * @throws IllegalArgumentException if {@code string} is {@code null}.
      */
     public boolean canMake(String string) {
-        return canMake(new Word(string));
+        checkArgument(string != null);
+
+        // Walking the string directly avoids creating a word for it and stops at the first missing character
+        return characterCount.canMake(normalizer == null ? string : normalizer.normalize(string));
     }
 
     /**
@@ -64,6 +176,313 @@ public class Word {
      * @return whether the given string can be made from the characters in the current word
      */
     public boolean canMake(Word otherWord) {
+        // The histogram rejects a word with a character this word lacks by its letter mask before comparing counts
         return characterCount.subsumes(otherWord.characterCount);
     }
+
+    /**
+     * Returns the number of characters that the current word lacks to make the given word. Each character counts as
+     * many times as it occurs more often in the given word than in the current word, so the result is {@code 0} if and
+     * only if the current word can make the given word.
+     * <p/>
+     * For example, "lottery" lacks three characters, an 'e', an 'i' and an 's', to make "lotteries".
+     *
+     * @param otherWord the given word
+     *
+     * @return the number of characters the current word lacks to make the given word
+     *
+     * @throws IllegalArgumentException if {@code otherWord} is {@code null}.
+     */
+    public int countMissing(Word otherWord) {
+        checkArgument(otherWord != null);
+        return characterCount.countMissing(otherWord.characterCount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns whether the given word can be made using the characters in the current word plus the given number of
+     * wildcards, each of which can stand for any one character. This is {@code countMissing(otherWord) <= wildcards}
+     * but stops counting as soon as the wildcards run out.
+     *
+     * @param otherWord the given word
+     * @param wildcards the number of wildcards available
+     *
+     * @return whether the given word can be made from the current word and the wildcards
+     *
+     * @throws IllegalArgumentException if {@code otherWord} is {@code null} or {@code wildcards} is negative.
+     */
+    public boolean canMakeWithWildcards(Word otherWord, int wildcards) {
+        checkArgument(otherWord != null);
+        checkArgument(wildcards >= 0);
+
+        if (otherWord.characterCount.length() > characterCount.length() + wildcards) {
+            return false;
+        }
+        return characterCount.countMissing(otherWord.characterCount, wildcards) <= wildcards;
+    }
+
+    /**
+     * Returns the word of the characters that are left in the current word once the characters of the given word are
+     * taken away. Characters of the given word that the current word lacks are ignored.
+     * <p/>
+     * For example, the difference of "lottery" and "tot" is "elry", and the difference of "toot" and "lottery" is "o".
+     * The characters of the resulting word are in ascending order, and it counts characters the same way as the current
+     * word.
+     *
+     * @param otherWord the given word
+     *
+     * @return the characters of the current word that are not in the given word
+     *
+     * @throws IllegalArgumentException if {@code otherWord} is {@code null}.
+     */
+    public Word difference(Word otherWord) {
+        checkArgument(otherWord != null);
+        return new Word(characterCount.difference(otherWord.characterCount), normalizer);
+    }
+
+    /**
+     * Returns the word of the characters needed to make both the current word and the given word, which has each
+     * character as many times as the more of its occurrences in the two words. This is the smallest word that can make
+     * both words.
+     * <p/>
+     * For example, the union of "lottery" and "toast" is "aelorstty". The characters of the resulting word are in
+     * ascending order, and it counts characters the same way as the current word.
+     *
+     * @param otherWord the given word
+     *
+     * @return the smallest word that can make both words
+     *
+     * @throws IllegalArgumentException if {@code otherWord} is {@code null}.
+     */
+    public Word union(Word otherWord) {
+        checkArgument(otherWord != null);
+        return new Word(characterCount.union(otherWord.characterCount), normalizer);
+    }
+
+    /**
+     * Returns the word of the characters that the current word and the given word have in common, which has each
+     * character as many times as the fewer of its occurrences in the two words. This is the largest word that both
+     * words can make.
+     * <p/>
+     * For example, the intersection of "lottery" and "toast" is "ott". The characters of the resulting word are in
+     * ascending order, and it counts characters the same way as the current word.
+     *
+     * @param otherWord the given word
+     *
+     * @return the largest word that both words can make
+     *
+     * @throws IllegalArgumentException if {@code otherWord} is {@code null}.
+     */
+    public Word intersection(Word otherWord) {
+        checkArgument(otherWord != null);
+        return new Word(characterCount.intersection(otherWord.characterCount), normalizer);
+    }
+
+    /**
+     * Returns which of the given candidates can be made using the characters in the current word. Bit {@code i} of the
+     * result is set if and only if {@code canMake(candidates.get(i))} is {@code true}.
+     * <p/>
+     * The candidates are sorted by length once, so candidates longer than the current word are never looked at, and the
+     * rest are screened by their {@linkplain #getLetterMask() letter masks} before their counts are compared.
+     *
+     * @param candidates the words to check
+     *
+     * @return the set of indexes of the candidates that can be made from the current word
+     *
+     * @throws IllegalArgumentException if {@code candidates} is {@code null} or contains {@code null}.
+     */
+    public BitSet filterMakeable(List<Word> candidates) {
+        checkArgument(candidates != null);
+        return new Candidates(candidates).makeableFrom(this);
+    }
+
+    /**
+     * Returns which of the given candidates can be made from each of the given racks. Element {@code r} of the result
+     * is {@code racks.get(r).filterMakeable(candidates)}.
+     * <p/>
+     * The candidates are prepared once and shared by every rack, so this is much faster than checking each rack
+     * separately. When {@code parallel} is {@code true} the racks are split across the common fork-join pool, which is
+     * worthwhile once there are many racks or candidates.
+     *
+     * @param racks the words to make candidates from
+     * @param candidates the words to check
+     * @param parallel whether to check the racks in parallel
+     *
+     * @return the set of indexes of the candidates that can be made from each rack, in the order of the racks
+     *
+     * @throws IllegalArgumentException if {@code racks} or {@code candidates} is {@code null} or contains {@code null}.
+     */
+    public static List<BitSet> filterMakeable(List<Word> racks, List<Word> candidates, boolean parallel) {
+        checkArgument(racks != null);
+        checkArgument(candidates != null);
+
+        final Word[] rackArray = racks.toArray(new Word[racks.size()]);
+        for (final Word rack : rackArray) {
+            checkArgument(rack != null);
+        }
+        final Candidates prepared = new Candidates(candidates);
+
+        final BitSet[] makeable = new BitSet[rackArray.length];
+        IntStream indexes = IntStream.range(0, rackArray.length);
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> makeable[i] = prepared.makeableFrom(rackArray[i]));
+        return ImmutableList.copyOf(makeable);
+    }
+
+    /**
+     * Returns a 64-bit mask of the characters present in the current word. Each character sets the bit given by its
+     * low six bits, {@code 1L << (ch & 63)}, so {@code 'a'} to {@code 'z'} and {@code 'A'} to {@code 'Z'} each have a
+     * bit of their own while other characters may share one. The characters are {@code char} values for words created
+     * with {@link #Word(String)} and code points for words created with {@link #Word(String, WordNormalizer)}.
+     * <p/>
+     * A word can only make another word if it has every character of the other word, so when {@code
+     * (other.getLetterMask() & ~getLetterMask()) != 0} this word cannot make the other. The converse does not hold:
+     * a candidate that passes the mask check must still be checked with {@link #canMake(Word)}. Callers that test many
+     * candidates can use the mask to discard most of them cheaply before checking the rest.
+     *
+     * @return the mask of the characters present in the current word
+     * @see #letterMaskOf(CharSequence)
+     * @see #letterMaskOf(String, WordNormalizer)
+     */
+    public long getLetterMask() {
+        return characterCount.getLetterMask();
+    }
+
+    /**
+     * Returns the mask of the {@code char} values present in the given string, without creating a word for the string.
+     * This is the {@linkplain #getLetterMask() letter mask} that {@code new Word(string)} would have, so it is only
+     * suitable as a prefilter for words created with {@link #Word(String)}. Use {@link #letterMaskOf(String,
+     * WordNormalizer)} for words that count code points.
+     *
+     * @param string the given string
+     *
+     * @return the mask of the characters present in the given string
+     *
+     * @throws IllegalArgumentException if {@code string} is {@code null}.
+     */
+    public static long letterMaskOf(CharSequence string) {
+        checkArgument(string != null);
+        return CharacterHistogram.letterMaskOf(string);
+    }
+
+    /**
+     * Returns the mask of the code points present in the given string once it is normalized by the given normalizer,
+     * without creating a word for the string. This is the {@linkplain #getLetterMask() letter mask} that {@code new
+     * Word(string, normalizer)} would have, so it is the prefilter to use for words created with {@link #Word(String,
+     * WordNormalizer)}.
+     *
+     * @param string the given string
+     * @param normalizer the normalizer to apply to the string
+     *
+     * @return the mask of the characters present in the given string
+     *
+     * @throws IllegalArgumentException if {@code string} or {@code normalizer} is {@code null}.
+     */
+    public static long letterMaskOf(String string, WordNormalizer normalizer) {
+        checkArgument(string != null);
+        checkArgument(normalizer != null);
+        return CharacterHistogram.codePointLetterMaskOf(normalizer.normalize(string));
+    }
+
+    /**
+     * Returns the signature of the current word, which is a string of its characters in ascending order. Two words
+     * have the same signature if and only if they are anagrams of each other, so the signature can be used as a hash
+     * key to group anagrams.
+     * <p/>
+     * The signature is computed from the character counts of the word the first time it is requested.
+     *
+     * @return the characters of the current word in ascending order
+     * @see AnagramIndex
+     */
+    public String getSignature() {
+        // Like String.hashCode, the signature may be computed more than once by racing threads but is always the same
+        String result = signature;
+        if (result == null) {
+            result = characterCount.toSortedString();
+            signature = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the given word is an anagram of the current word, meaning that both words contain exactly the
+     * same characters. Every word is an anagram of itself.
+     *
+     * @param otherWord the given word
+     *
+     * @return whether the given word is an anagram of the current word
+     *
+     * @throws IllegalArgumentException if {@code otherWord} is {@code null}.
+     */
+    public boolean isAnagramOf(Word otherWord) {
+        checkArgument(otherWord != null);
+        return characterCount.hasSameCounts(otherWord.characterCount);
+    }
+
+    /**
+     * The candidates of a bulk {@code canMake} check, sorted by length and laid out in parallel arrays so that a rack
+     * scans their masks sequentially and stops at the first candidate longer than itself. Instances are never modified
+     * after they are created and may be shared between threads.
+     */
+    private static final class Candidates {
+        private final int[] indexes;
+        private final int[] lengths;
+        private final long[] letterMasks;
+        private final CharacterHistogram[] characterCounts;
+
+        private Candidates(List<Word> words) {
+            final Word[] wordArray = words.toArray(new Word[words.size()]);
+
+            // Sorting the length and index packed into one long orders the candidates by length without boxing
+            final long[] order = new long[wordArray.length];
+            for (int i = 0; i < wordArray.length; i++) {
+                checkArgument(wordArray[i] != null);
+                order[i] = (long) wordArray[i].characterCount.length() << 32 | i;
+            }
+            Arrays.sort(order);
+
+            indexes = new int[order.length];
+            lengths = new int[order.length];
+            letterMasks = new long[order.length];
+            characterCounts = new CharacterHistogram[order.length];
+            for (int i = 0; i < order.length; i++) {
+                final int index = (int) order[i];
+                final CharacterHistogram characterCount = wordArray[index].characterCount;
+                indexes[i] = index;
+                lengths[i] = characterCount.length();
+                letterMasks[i] = characterCount.getLetterMask();
+                characterCounts[i] = characterCount;
+            }
+        }
+
+        private BitSet makeableFrom(Word rack) {
+            final BitSet makeable = new BitSet(indexes.length);
+            final CharacterHistogram rackCount = rack.characterCount;
+            final int rackLength = rackCount.length();
+            final long missing = ~rackCount.getLetterMask();
+            for (int i = 0; i < indexes.length && lengths[i] <= rackLength; i++) {
+                if ((letterMasks[i] & missing) == 0 && rackCount.subsumes(characterCounts[i])) {
+                    makeable.set(indexes[i]);
+                }
+            }
+            return makeable;
+        }
+    }
+
+    /**
+     * Holds the cache behind {@link #of(String)}, so that it is only created, and its size only read, once a word is
+     * interned rather than whenever the {@link Word} class is initialized.
+     */
+    private static final class Interned {
+        private static final LoadingCache<String, Word> CACHE = CacheBuilder.newBuilder()
+                .maximumSize(internCacheSize(Integer.getInteger(INTERN_CACHE_SIZE_PROPERTY)))
+                .recordStats()
+                .build(new CacheLoader<String, Word>() {
+                    @Override
+                    public Word load(String string) {
+                        return new Word(string);
+                    }
+                });
+    }
 }
@@ -0,0 +1,178 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Indexes a dictionary of words so that every word that can be made from a given set of letters can be found without
+ * checking each word in turn.
+ * <p/>
+ * Each word is added to a trie under its letters in sorted order, so words that are anagrams of each other share a
+ * single path, and words share the path of any sorted letters they start with. A query walks the trie alongside the
+ * sorted letters of the query and only enters a branch while the query still has a letter left for it, so it never
+ * visits the words that need a letter the query lacks. The cost of a query therefore depends on how many letter
+ * combinations the query shares with the dictionary rather than on the size of the dictionary.
+ * <p/>
+ * Instances of this class are immutable once created and may be shared between threads.
+ *
+ * @see Word#canMake(Word)
+ */
+public final class WordIndex {
+
+    private final Node root = new Node();
+    private final int size;
+
+    /**
+     * Creates an index of the given words. Words that appear more than once are returned once for each appearance.
+     *
+     * @param words the words to index
+     *
+     * @throws IllegalArgumentException if {@code words} is {@code null} or contains {@code null}
+     */
+    public WordIndex(Iterable<String> words) {
+        checkArgument(words != null);
+
+        int count = 0;
+        for (final String word : words) {
+            checkArgument(word != null);
+
+            final char[] letters = word.toCharArray();
+            Arrays.sort(letters);
+            Node node = root;
+            for (final char letter : letters) {
+                node = node.childFor(letter);
+            }
+            node.words.add(word);
+            count++;
+        }
+        size = count;
+        root.freeze();
+    }
+
+    /**
+     * Returns every indexed word that can be made from the given letters, in no particular order.
+     *
+     * @param letters the letters available to make words from
+     *
+     * @return the words that can be made from the given letters
+     *
+     * @throws IllegalArgumentException if {@code letters} is {@code null}
+     * @see Word#canMake(String)
+     */
+    public List<String> findMakeable(String letters) {
+        checkArgument(letters != null);
+
+        // The query is reduced to its distinct letters in sorted order with the number of times each one is available
+        final char[] sorted = letters.toCharArray();
+        Arrays.sort(sorted);
+        final char[] distinct = new char[sorted.length];
+        final int[] remaining = new int[sorted.length];
+        int distinctCount = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct[distinctCount++] = sorted[i];
+            }
+            remaining[distinctCount - 1]++;
+        }
+
+        final ImmutableList.Builder<String> makeable = ImmutableList.builder();
+        collect(root, distinct, remaining, distinctCount, 0, makeable);
+        return makeable.build();
+    }
+
+    /**
+     * See {@link #findMakeable(String)}.
+     *
+     * @param letters the word whose letters are available to make words from
+     *
+     * @return the words that can be made from the letters of the given word
+     *
+     * @throws IllegalArgumentException if {@code letters} is {@code null}
+     */
+    public List<String> findMakeable(Word letters) {
+        checkArgument(letters != null);
+        return findMakeable(letters.getString());
+    }
+
+    /**
+     * Adds the words at the given node and below it to the given builder. Since the letters along a path are sorted,
+     * the children of a node and the distinct letters of the query can be matched in a single merge, starting from the
+     * letter that led to the node.
+     */
+    private static void collect(Node node, char[] letters, int[] remaining, int letterCount, int start,
+                                ImmutableList.Builder<String> makeable) {
+        makeable.addAll(node.words);
+
+        int position = start;
+        for (int i = 0; i < node.childCount && position < letterCount; i++) {
+            final char letter = node.letters[i];
+            while (position < letterCount && letters[position] < letter) {
+                position++;
+            }
+            if (position < letterCount && letters[position] == letter && remaining[position] > 0) {
+                remaining[position]--;
+                collect(node.children[i], letters, remaining, letterCount, position, makeable);
+                remaining[position]++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of words in the index.
+     *
+     * @return the number of indexed words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A node of the trie, reached by the sorted letters of the words stored at it.
+     */
+    private static final class Node {
+        private char[] letters = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount = 0;
+        private List<String> words = new ArrayList<>(0);
+
+        /**
+         * Returns the child reached by the given letter, creating it if needed. Children are kept sorted by letter.
+         */
+        private Node childFor(char letter) {
+            int index = Arrays.binarySearch(letters, 0, childCount, letter);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            index = -index - 1;
+            if (childCount == letters.length) {
+                final int capacity = Math.max(2, childCount * 2);
+                letters = Arrays.copyOf(letters, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(letters, index, letters, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            letters[index] = letter;
+            children[index] = new Node();
+            childCount++;
+            return children[index];
+        }
+
+        /**
+         * Trims the arrays of this node and every node below it and makes their word lists immutable.
+         */
+        private void freeze() {
+            letters = Arrays.copyOf(letters, childCount);
+            children = Arrays.copyOf(children, childCount);
+            words = ImmutableList.copyOf(words);
+            for (final Node child : children) {
+                child.freeze();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Normalizes strings before they are made into {@linkplain Word#Word(String, WordNormalizer) code-point words}, so that
+ * strings that differ only in case or in how their characters are composed are counted the same way.
+ * <p/>
+ * Case folding maps a string to upper case and then to lower case in the root locale, so that characters such as the
+ * German sharp s, whose upper-case form is two letters, fold to the same string as their expansion. Unicode
+ * normalization then applies the given {@link Normalizer.Form}, such as {@link Normalizer.Form#NFC} to compose accented
+ * letters into single code points.
+ * <p/>
+ * Normalizing a string is much slower than counting its characters, and the same words tend to be seen again and
+ * again, so the normalized forms of the most recently used strings are kept in a bounded cache.
+ * <p/>
+ * Instances of this class are thread-safe.
+ */
+public final class WordNormalizer {
+
+    private static final int DEFAULT_MAXIMUM_CACHE_SIZE = 10_000;
+
+    private static final WordNormalizer NONE = new WordNormalizer(false, Optional.<Normalizer.Form>absent(), 0);
+
+    private final boolean foldCase;
+    private final Optional<Normalizer.Form> form;
+    private final LoadingCache<String, String> normalized;
+
+    /**
+     * Creates a normalizer that caches the normalized forms of up to {@value #DEFAULT_MAXIMUM_CACHE_SIZE} strings.
+     *
+     * @param foldCase whether to fold the case of strings
+     * @param form the Unicode normalization form to apply, if any
+     *
+     * @throws IllegalArgumentException if {@code form} is {@code null}
+     */
+    public WordNormalizer(boolean foldCase, Optional<Normalizer.Form> form) {
+        this(foldCase, form, DEFAULT_MAXIMUM_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a normalizer that caches the normalized forms of up to the given number of strings.
+     *
+     * @param foldCase whether to fold the case of strings
+     * @param form the Unicode normalization form to apply, if any
+     * @param maximumCacheSize the maximum number of normalized strings to cache
+     *
+     * @throws IllegalArgumentException if {@code form} is {@code null} or {@code maximumCacheSize} is negative
+     */
+    public WordNormalizer(boolean foldCase, Optional<Normalizer.Form> form, int maximumCacheSize) {
+        checkArgument(form != null);
+        checkArgument(maximumCacheSize >= 0);
+
+        this.foldCase = foldCase;
+        this.form = form;
+        this.normalized = CacheBuilder.newBuilder()
+                .maximumSize(maximumCacheSize)
+                .build(new CacheLoader<String, String>() {
+                    @Override
+                    public String load(String string) {
+                        return normalizeUncached(string);
+                    }
+                });
+    }
+
+    /**
+     * Returns a normalizer that leaves strings unchanged, for words that only need to be counted by code point.
+     *
+     * @return a normalizer that leaves strings unchanged
+     */
+    public static WordNormalizer none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the normalized form of the given string.
+     *
+     * @param string the given string
+     *
+     * @return the normalized form of the given string
+     *
+     * @throws IllegalArgumentException if {@code string} is {@code null}
+     */
+    public String normalize(String string) {
+        checkArgument(string != null);
+        if (!foldCase && !form.isPresent()) {
+            return string;
+        }
+        return normalized.getUnchecked(string);
+    }
+
+    private String normalizeUncached(String string) {
+        String result = string;
+        if (foldCase) {
+            result = result.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        }
+        if (form.isPresent() && !Normalizer.isNormalized(result, form.get())) {
+            result = Normalizer.normalize(result, form.get());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link AnagramIndex}.
+ */
+@SuppressWarnings("JavaDoc")
+public class AnagramIndexTest {
+    private static final List<String> DICTIONARY =
+            ImmutableList.of("listen", "silent", "enlist", "tinsel", "lot", "tol", "google", "", "silent");
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private AnagramIndex index;
+
+    @Before
+    public void setup() {
+        index = new AnagramIndex(DICTIONARY);
+    }
+
+    @Test
+    public void testGetAnagrams() {
+        assertThat(index.getAnagrams("inlets"))
+                .containsExactly("listen", "silent", "enlist", "tinsel", "silent").inOrder();
+        assertThat(index.getAnagrams("lot")).containsExactly("lot", "tol").inOrder();
+        assertThat(index.getAnagrams("google")).containsExactly("google");
+        assertThat(index.getAnagrams("")).containsExactly("");
+        assertThat(index.getAnagrams("lots")).isEmpty();
+        assertThat(index.getAnagrams("lo")).isEmpty();
+    }
+
+    @Test
+    public void testGetAnagramsOfWord() {
+        assertEquals(index.getAnagrams("inlets"), index.getAnagrams(new Word("inlets")));
+        assertThat(index.getAnagrams(new Word("olt"))).containsExactly("lot", "tol").inOrder();
+    }
+
+    @Test
+    public void testGetAnagramsWithCharactersOutsideLatin1() {
+        final AnagramIndex unicodeIndex = new AnagramIndex(Arrays.asList("caf\u00e9", "\u00e9fac", "\u4e2d\u6587"));
+        assertThat(unicodeIndex.getAnagrams("face")).isEmpty();
+        assertThat(unicodeIndex.getAnagrams("ac\u00e9f")).containsExactly("caf\u00e9", "\u00e9fac").inOrder();
+        assertThat(unicodeIndex.getAnagrams("\u6587\u4e2d")).containsExactly("\u4e2d\u6587");
+    }
+
+    @Test
+    public void testGetAnagramClasses() {
+        assertThat(index.getAnagramClasses()).containsExactly(
+                ImmutableList.of("listen", "silent", "enlist", "tinsel", "silent"),
+                ImmutableList.of("lot", "tol"),
+                ImmutableList.of("google"),
+                ImmutableList.of(""));
+    }
+
+    @Test
+    public void testAnagramClassesAgreeWithWord() {
+        for (final List<String> anagramClass : index.getAnagramClasses()) {
+            final Word first = new Word(anagramClass.get(0));
+            for (final String string : anagramClass) {
+                assertTrue(first.isAnagramOf(new Word(string)));
+            }
+        }
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(DICTIONARY.size(), index.size());
+        assertEquals(0, new AnagramIndex(new ArrayList<>()).size());
+    }
+
+    @Test
+    public void testConstructorNull() {
+        exception.expect(IllegalArgumentException.class);
+        new AnagramIndex(null);
+    }
+
+    @Test
+    public void testConstructorNullString() {
+        exception.expect(IllegalArgumentException.class);
+        new AnagramIndex(Arrays.asList("lot", null));
+    }
+
+    @Test
+    public void testGetAnagramsNull() {
+        exception.expect(IllegalArgumentException.class);
+        index.getAnagrams((String) null);
+    }
+}
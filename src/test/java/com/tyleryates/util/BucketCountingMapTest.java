@@ -0,0 +1,197 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link BucketCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class BucketCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+
+    private CountingMap<String> countingMap;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        countingMap = new BucketCountingMap<>();
+    }
+
+    @Test
+    public void testConstructorWithIterable() {
+        countingMap = new BucketCountingMap<>(ImmutableList.of(KEY1, KEY2, KEY1));
+        assertEquals(ImmutableMap.of(KEY1, 2, KEY2, 1), countingMap.getCounts());
+    }
+
+    @Test
+    public void testIncrementCount() {
+        assertEquals(0, countingMap.getCount(KEY1));
+        assertEquals(1, countingMap.incrementCount(KEY1));
+        assertEquals(11, countingMap.incrementCount(KEY1, 10));
+        assertEquals(11, countingMap.incrementCount(KEY1, 0));
+        assertEquals(11, countingMap.getCount(KEY1));
+        assertTrue(countingMap.containsKey(KEY1));
+        assertFalse(countingMap.containsKey(KEY2));
+        assertEquals(1, countingMap.size());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testIncrementCountWithNullKey() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(null);
+    }
+
+    @Test
+    public void testIncrementCountOverflowThrows() {
+        countingMap.incrementCount(KEY1, Integer.MAX_VALUE - 1);
+        countingMap.incrementCount(KEY2, 1);
+        try {
+            countingMap.incrementCount(KEY1, 2);
+            throw new AssertionError("Expected an ArithmeticException");
+        } catch (ArithmeticException e) {
+            assertEquals(Integer.MAX_VALUE - 1, countingMap.getCount(KEY1));
+            assertEquals(ImmutableList.of(KEY1, KEY2), countingMap.topK(2));
+            assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+        }
+    }
+
+    @Test
+    public void testExtremumQueries() {
+        assertThat(countingMap.getKeyWithHighestCount()).isAbsent();
+        assertThat(countingMap.getKeyWithLowestCount()).isAbsent();
+        assertThat(countingMap.getKeysWithHighestCount()).isEmpty();
+        assertThat(countingMap.getKeysWithLowestCount()).isEmpty();
+
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY3);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY2);
+
+        countingMap.incrementCount(KEY2, 2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1, KEY2, KEY3);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY2, KEY3);
+
+        countingMap.incrementCount(KEY2);
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1, KEY3);
+    }
+
+    @Test
+    public void testRankedQueries() {
+        assertThat(countingMap.topK(2)).isEmpty();
+        assertThat(countingMap.bottomK(2)).isEmpty();
+        assertEquals(0, countingMap.getRank(KEY1));
+
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.topK(0)).isEmpty();
+        assertThat(countingMap.topK(2)).containsExactly(KEY1, KEY3).inOrder();
+        assertThat(countingMap.topK(5)).containsExactly(KEY1, KEY3, KEY2).inOrder();
+        assertThat(countingMap.bottomK(2)).containsExactly(KEY2, KEY3).inOrder();
+        assertEquals(1, countingMap.getRank(KEY1));
+        assertEquals(2, countingMap.getRank(KEY3));
+        assertEquals(3, countingMap.getRank(KEY2));
+
+        countingMap.incrementCount(KEY3, 2);
+        assertEquals(1, countingMap.getRank(KEY3));
+        assertEquals(3, countingMap.getRank(KEY2));
+    }
+
+    @Test
+    public void testTopKWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.topK(-1);
+    }
+
+    @Test
+    public void testDecrementCount() {
+        final BucketCountingMap<String> bucketMap = new BucketCountingMap<>();
+        bucketMap.incrementCount(KEY1, 5);
+        bucketMap.incrementCount(KEY2, 3);
+        bucketMap.incrementCount(KEY3, 1);
+        assertEquals(2, bucketMap.decrementCount(KEY1, 3));
+        assertEquals(ImmutableList.of(KEY2, KEY1, KEY3), bucketMap.topK(3));
+        assertEquals(0, bucketMap.decrementCount(KEY3, 2));
+        assertFalse(bucketMap.containsKey(KEY3));
+        assertThat(bucketMap.getKeysWithLowestCount()).containsExactly(KEY1);
+        assertEquals(0, bucketMap.decrementCount("missing", 1));
+        assertFalse(bucketMap.containsKey("missing"));
+    }
+
+    @Test
+    public void testMergeCountsAndSubsumes() {
+        final CountingMap<String> otherMap = new BucketCountingMap<>();
+        otherMap.incrementCount(KEY1, 3);
+        otherMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY1);
+        assertFalse(countingMap.subsumes(otherMap));
+
+        countingMap.mergeCounts(otherMap);
+        assertEquals(ImmutableMap.of(KEY1, 4, KEY2, 1), countingMap.getCounts());
+        assertTrue(countingMap.subsumes(otherMap));
+        assertFalse(otherMap.subsumes(countingMap));
+        assertTrue(countingMap.subsumes(new HashCountingMap<>(ImmutableList.of(KEY1, KEY2))));
+    }
+
+    @Test
+    public void testMatchesHashCountingMap() {
+        final CountingMap<Integer> expected = new HashCountingMap<>();
+        final CountingMap<Integer> actual = new BucketCountingMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            final int key = random.nextInt(500);
+            final int countsToAdd = random.nextInt(4);
+            assertEquals(expected.incrementCount(key, countsToAdd), actual.incrementCount(key, countsToAdd));
+            if (i % 100 == 0) {
+                assertEquals(expected.getKeysWithHighestCount(), actual.getKeysWithHighestCount());
+                assertEquals(expected.getKeysWithLowestCount(), actual.getKeysWithLowestCount());
+            }
+        }
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getCounts(), actual.getCounts());
+        assertEquals(expected.getKeysWithHighestCount(), actual.getKeysWithHighestCount());
+        assertEquals(expected.getKeysWithLowestCount(), actual.getKeysWithLowestCount());
+        assertEquals(countsOf(expected.topK(50), expected), countsOf(actual.topK(50), actual));
+        assertEquals(countsOf(expected.bottomK(50), expected), countsOf(actual.bottomK(50), actual));
+        for (int key = 0; key < 500; key++) {
+            assertEquals(expected.getRank(key), actual.getRank(key));
+        }
+    }
+
+    private static <T> List<Integer> countsOf(List<T> keys, CountingMap<T> countingMap) {
+        final List<Integer> counts = new ArrayList<>();
+        for (final T key : keys) {
+            counts.add(countingMap.getCount(key));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,237 @@
+package com.tyleryates.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link CharacterHistogram}.
+ */
+@SuppressWarnings("JavaDoc")
+public class CharacterHistogramTest {
+    private static final String DENSE = "lottery";
+    private static final String SPARSE = "l\u4e2do\u4e2dt\u00e9";
+
+    @Test
+    public void testGetCountDense() {
+        final CharacterHistogram histogram = CharacterHistogram.of(DENSE);
+        assertEquals(2, histogram.getCount('t'));
+        assertEquals(1, histogram.getCount('l'));
+        assertEquals(1, histogram.getCount('y'));
+        assertEquals(0, histogram.getCount('a'));
+        assertEquals(0, histogram.getCount('z'));
+    }
+
+    @Test
+    public void testGetCountSparse() {
+        final CharacterHistogram histogram = CharacterHistogram.of(SPARSE);
+        assertEquals(2, histogram.getCount('\u4e2d'));
+        assertEquals(1, histogram.getCount('\u00e9'));
+        assertEquals(1, histogram.getCount('l'));
+        assertEquals(0, histogram.getCount('a'));
+        assertEquals(0, histogram.getCount('\uffff'));
+    }
+
+    @Test
+    public void testGetCountEmpty() {
+        assertEquals(0, CharacterHistogram.of("").getCount('a'));
+    }
+
+    @Test
+    public void testSubsumes() {
+        final CharacterHistogram dense = CharacterHistogram.of(DENSE);
+        final CharacterHistogram sparse = CharacterHistogram.of(SPARSE);
+        final CharacterHistogram empty = CharacterHistogram.of("");
+
+        assertTrue(dense.subsumes(CharacterHistogram.of("tot")));
+        assertFalse(dense.subsumes(CharacterHistogram.of("ttt")));
+        assertFalse(dense.subsumes(CharacterHistogram.of("a")));
+        assertTrue(dense.subsumes(empty));
+        assertFalse(empty.subsumes(dense));
+
+        assertTrue(sparse.subsumes(CharacterHistogram.of("\u4e2d\u4e2d")));
+        assertTrue(sparse.subsumes(CharacterHistogram.of("lot")));
+        assertFalse(sparse.subsumes(CharacterHistogram.of("lotto")));
+        assertFalse(dense.subsumes(sparse));
+        assertTrue(CharacterHistogram.of(SPARSE + DENSE).subsumes(sparse));
+    }
+
+    @Test
+    public void testCanMake() {
+        final CharacterHistogram dense = CharacterHistogram.of(DENSE);
+        assertTrue(dense.canMake(""));
+        assertTrue(dense.canMake("retty"));
+        assertFalse(dense.canMake("ttt"));
+        assertFalse(dense.canMake("a"));
+        assertFalse(dense.canMake("lotteryy"));
+
+        final CharacterHistogram sparse = CharacterHistogram.of(SPARSE);
+        assertTrue(sparse.canMake("\u4e2d\u00e9\u4e2d"));
+        assertFalse(sparse.canMake("\u4e2d\u4e2d\u4e2d"));
+        assertFalse(CharacterHistogram.of("").canMake("a"));
+    }
+
+    @Test
+    public void testCodePoints() {
+        // Counting chars lets the halves of U+1F600 and U+1F900 recombine into U+1F500, which neither contains
+        final String faces = "a\ud83d\ude00\ud83e\udd00";
+        final String mixed = "\ud83d\udd00";
+        assertTrue(CharacterHistogram.of(faces).canMake(mixed));
+        assertTrue(CharacterHistogram.of(faces).subsumes(CharacterHistogram.of(mixed)));
+
+        final CharacterHistogram histogram = CharacterHistogram.ofCodePoints(faces);
+        assertEquals(1, histogram.getCount(0x1f600));
+        assertEquals(1, histogram.getCount(0x1f900));
+        assertEquals(0, histogram.getCount(0xd83d));
+        assertEquals(3, histogram.length());
+        assertFalse(histogram.canMake(mixed));
+        assertFalse(histogram.subsumes(CharacterHistogram.ofCodePoints(mixed)));
+        assertTrue(histogram.canMake("\ud83e\udd00a"));
+        assertTrue(histogram.subsumes(CharacterHistogram.ofCodePoints("\ud83e\udd00a")));
+        assertFalse(histogram.canMake("aa"));
+        assertEquals(faces, histogram.toSortedString());
+        assertEquals("a\ud83d\ude00\ud83d\ude00", CharacterHistogram.ofCodePoints("\ud83d\ude00a\ud83d\ude00")
+                .toSortedString());
+    }
+
+    @Test
+    public void testCodePointsWithoutSurrogatesMatchChars() {
+        for (final String string : new String[]{DENSE, SPARSE, ""}) {
+            final CharacterHistogram chars = CharacterHistogram.of(string);
+            final CharacterHistogram codePoints = CharacterHistogram.ofCodePoints(string);
+            assertTrue(chars.hasSameCounts(codePoints));
+            assertEquals(chars.getLetterMask(), codePoints.getLetterMask());
+            assertEquals(chars.toSortedString(), codePoints.toSortedString());
+        }
+    }
+
+    @Test
+    public void testUnpairedSurrogate() {
+        final CharacterHistogram histogram = CharacterHistogram.ofCodePoints("a\ud83d");
+        assertEquals(1, histogram.getCount(0xd83d));
+        assertTrue(histogram.canMake("\ud83d"));
+        assertFalse(histogram.canMake("\ud83d\ude00"));
+    }
+
+    @Test
+    public void testGetLetterMask() {
+        final long lottery = CharacterHistogram.bitFor('l') | CharacterHistogram.bitFor('o')
+                | CharacterHistogram.bitFor('t') | CharacterHistogram.bitFor('e') | CharacterHistogram.bitFor('r')
+                | CharacterHistogram.bitFor('y');
+        assertEquals(lottery, CharacterHistogram.of(DENSE).getLetterMask());
+        assertEquals(lottery, CharacterHistogram.letterMaskOf(DENSE));
+        assertEquals(CharacterHistogram.letterMaskOf(SPARSE), CharacterHistogram.of(SPARSE).getLetterMask());
+        assertEquals(0L, CharacterHistogram.of("").getLetterMask());
+    }
+
+    @Test
+    public void testLetterBitsAreDistinct() {
+        final Set<Long> bits = new HashSet<>();
+        for (char ch = 'a'; ch <= 'z'; ch++) {
+            assertTrue(bits.add(CharacterHistogram.bitFor(ch)));
+        }
+        for (char ch = 'A'; ch <= 'Z'; ch++) {
+            assertTrue(bits.add(CharacterHistogram.bitFor(ch)));
+        }
+    }
+
+    @Test
+    public void testToSortedString() {
+        assertEquals("elortty", CharacterHistogram.of(DENSE).toSortedString());
+        assertEquals("lot\u00e9\u4e2d\u4e2d", CharacterHistogram.of(SPARSE).toSortedString());
+        assertEquals("", CharacterHistogram.of("").toSortedString());
+    }
+
+    @Test
+    public void testHasSameCounts() {
+        assertTrue(CharacterHistogram.of(DENSE).hasSameCounts(CharacterHistogram.of("tolerty")));
+        assertTrue(CharacterHistogram.of(SPARSE).hasSameCounts(CharacterHistogram.of("\u4e2d\u4e2d\u00e9tol")));
+        assertFalse(CharacterHistogram.of(DENSE).hasSameCounts(CharacterHistogram.of("lotter")));
+        assertFalse(CharacterHistogram.of("lotter").hasSameCounts(CharacterHistogram.of(DENSE)));
+        assertFalse(CharacterHistogram.of(DENSE).hasSameCounts(CharacterHistogram.of("lottera")));
+    }
+
+    @Test
+    public void testMatchesHashCountingMap() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            final String string = randomString(random);
+            final CharacterHistogram histogram = CharacterHistogram.of(string);
+            final CountingMap<Character> expected = new HashCountingMap<>();
+            for (int j = 0; j < string.length(); j++) {
+                expected.incrementCount(string.charAt(j));
+            }
+            for (char ch = 0; ch < 1_000; ch++) {
+                assertEquals(expected.getCount(ch), histogram.getCount(ch));
+            }
+
+            final String other = randomString(random);
+            final CountingMap<Character> otherExpected = new HashCountingMap<>();
+            for (int j = 0; j < other.length(); j++) {
+                otherExpected.incrementCount(other.charAt(j));
+            }
+            assertEquals(expected.subsumes(otherExpected), histogram.subsumes(CharacterHistogram.of(other)));
+            assertEquals(expected.subsumes(otherExpected), histogram.canMake(other));
+        }
+    }
+
+    @Test
+    public void testSetOperationsMatchCounts() {
+        final Random random = new Random(23);
+        for (int i = 0; i < 1_000; i++) {
+            final CharacterHistogram histogram = CharacterHistogram.of(randomString(random));
+            final CharacterHistogram other = CharacterHistogram.of(randomString(random));
+            final CharacterHistogram difference = histogram.difference(other);
+            final CharacterHistogram union = histogram.union(other);
+            final CharacterHistogram intersection = histogram.intersection(other);
+
+            int missing = 0;
+            for (char ch = 0; ch < 1_200; ch++) {
+                final int count = histogram.getCount(ch);
+                final int otherCount = other.getCount(ch);
+                assertEquals(Math.max(0, count - otherCount), difference.getCount(ch));
+                assertEquals(Math.max(count, otherCount), union.getCount(ch));
+                assertEquals(Math.min(count, otherCount), intersection.getCount(ch));
+                missing += Math.max(0, otherCount - count);
+            }
+            assertEquals(missing, histogram.countMissing(other, Integer.MAX_VALUE));
+            assertEquals(missing == 0, histogram.subsumes(other));
+            assertTrue(union.subsumes(histogram) && union.subsumes(other));
+            assertTrue(histogram.subsumes(intersection) && other.subsumes(intersection));
+            assertEquals(CharacterHistogram.letterMaskOf(difference.toSortedString()), difference.getLetterMask());
+        }
+    }
+
+    @Test
+    public void testCountMissingStopsAtLimit() {
+        final CharacterHistogram histogram = CharacterHistogram.of("");
+        assertEquals(7, histogram.countMissing(CharacterHistogram.of(DENSE), 10));
+        assertTrue(histogram.countMissing(CharacterHistogram.of(DENSE), 2) > 2);
+    }
+
+    @Test
+    public void testSetOperationsWithCodePoints() {
+        final CharacterHistogram histogram = CharacterHistogram.ofCodePoints("a\ud83d\ude00\ud83e\udd00");
+        final CharacterHistogram other = CharacterHistogram.ofCodePoints("ab\ud83d\ude00");
+        assertEquals("\ud83e\udd00", histogram.difference(other).toSortedString());
+        assertEquals("ab\ud83d\ude00\ud83e\udd00", histogram.union(other).toSortedString());
+        assertEquals("a\ud83d\ude00", histogram.intersection(other).toSortedString());
+        assertEquals(1, histogram.countMissing(other, Integer.MAX_VALUE));
+        assertTrue(histogram.difference(other).canMake("\ud83e\udd00"));
+    }
+
+    private static String randomString(Random random) {
+        final int range = random.nextBoolean() ? 8 : 1_000;
+        final char[] chars = new char[random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(range));
+        }
+        return new String(chars);
+    }
+}
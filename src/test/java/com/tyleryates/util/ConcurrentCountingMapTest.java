@@ -0,0 +1,173 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ConcurrentCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class ConcurrentCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 10_000;
+
+    private CountingMap<String> countingMap;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        countingMap = new ConcurrentCountingMap<>();
+    }
+
+    @Test
+    public void testConstructorWithIterable() {
+        countingMap = new ConcurrentCountingMap<>(ImmutableList.of(KEY1, KEY2, KEY1));
+        assertEquals(ImmutableMap.of(KEY1, 2, KEY2, 1), countingMap.getCounts());
+    }
+
+    @Test
+    public void testIncrementCount() {
+        assertEquals(0, countingMap.getCount(KEY1));
+        assertEquals(1, countingMap.incrementCount(KEY1));
+        assertEquals(11, countingMap.incrementCount(KEY1, 10));
+        assertEquals(11, countingMap.getCount(KEY1));
+        assertTrue(countingMap.containsKey(KEY1));
+        assertFalse(countingMap.containsKey(KEY2));
+        assertEquals(1, countingMap.size());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testIncrementCountWithNullKey() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(null);
+    }
+
+    @Test
+    public void testNullKeyQueries() {
+        assertEquals(0, countingMap.getCount(null));
+        assertFalse(countingMap.containsKey(null));
+    }
+
+    @Test
+    public void testExtremumQueries() {
+        assertThat(countingMap.getKeyWithHighestCount()).isAbsent();
+        assertThat(countingMap.getKeyWithLowestCount()).isAbsent();
+        assertThat(countingMap.getKeysWithHighestCount()).isEmpty();
+        assertThat(countingMap.getKeysWithLowestCount()).isEmpty();
+
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY3);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY2);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+
+        countingMap.incrementCount(KEY3);
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY3);
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                            countingMap.incrementCount(KEY1);
+                            countingMap.incrementCount(KEY2, 2);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(THREADS * INCREMENTS_PER_THREAD, countingMap.getCount(KEY1));
+        assertEquals(2 * THREADS * INCREMENTS_PER_THREAD, countingMap.getCount(KEY2));
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY2);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY1);
+    }
+
+    @Test
+    public void testNewKeysAreNeverSeenAtZero() throws Exception {
+        final ConcurrentCountingMap<Integer> map = new ConcurrentCountingMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Void> writer = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int key = 0; key < INCREMENTS_PER_THREAD; key++) {
+                        map.incrementCount(key, 3);
+                    }
+                    return null;
+                }
+            });
+            final Future<Void> reader = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    while (!writer.isDone()) {
+                        map.forEachCount((key, count) -> assertEquals(3, count));
+                        for (final int key : map.getKeysWithLowestCount()) {
+                            assertEquals(3, map.getCount(key));
+                        }
+                    }
+                    return null;
+                }
+            });
+            writer.get();
+            reader.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(INCREMENTS_PER_THREAD, map.size());
+    }
+
+    @Test
+    public void testMergeAndSubsumes() {
+        final CountingMap<String> otherMap = new HashCountingMap<>();
+        otherMap.incrementCount(KEY1, 3);
+        otherMap.incrementCount(KEY2, 1);
+        assertFalse(countingMap.subsumes(otherMap));
+
+        countingMap.incrementCount(KEY1);
+        countingMap.mergeCounts(otherMap);
+        assertEquals(ImmutableMap.of(KEY1, 4, KEY2, 1), countingMap.getCounts());
+        assertTrue(countingMap.subsumes(otherMap));
+    }
+}
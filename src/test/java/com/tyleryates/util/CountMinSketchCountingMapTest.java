@@ -0,0 +1,168 @@
+package com.tyleryates.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link CountMinSketchCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class CountMinSketchCountingMapTest {
+    private static final double EPSILON = 0.001;
+    private static final double DELTA = 0.01;
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+
+    private CountMinSketchCountingMap<String> sketch;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        sketch = new CountMinSketchCountingMap<>(EPSILON, DELTA);
+    }
+
+    @Test
+    public void testShape() {
+        assertEquals((int) Math.ceil(Math.E / EPSILON), sketch.getWidth());
+        assertEquals((int) Math.ceil(Math.log(1 / DELTA)), sketch.getDepth());
+    }
+
+    @Test
+    public void testIllegalEpsilon() {
+        exception.expect(IllegalArgumentException.class);
+        new CountMinSketchCountingMap<String>(0, DELTA);
+    }
+
+    @Test
+    public void testIllegalDelta() {
+        exception.expect(IllegalArgumentException.class);
+        new CountMinSketchCountingMap<String>(EPSILON, 1);
+    }
+
+    @Test
+    public void testTooManyCounters() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("more than the maximum");
+        new CountMinSketchCountingMap<String>(1e-9, DELTA);
+    }
+
+    @Test
+    public void testCountersSaturate() {
+        for (final boolean conservativeUpdate : new boolean[]{true, false}) {
+            sketch = new CountMinSketchCountingMap<>(EPSILON, DELTA, conservativeUpdate);
+            sketch.incrementCount(KEY1, Integer.MAX_VALUE - 1);
+            assertEquals(Integer.MAX_VALUE, sketch.incrementCount(KEY1, 10));
+            assertEquals(Integer.MAX_VALUE, sketch.getCount(KEY1));
+            assertEquals(Integer.MAX_VALUE + 9L, sketch.getTotalCount());
+        }
+    }
+
+    @Test
+    public void testIncrementCount() {
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.getCount(KEY1));
+        assertFalse(sketch.containsKey(KEY1));
+
+        assertEquals(1, sketch.incrementCount(KEY1));
+        assertEquals(6, sketch.incrementCount(KEY1, 5));
+        assertEquals(6, sketch.getCount(KEY1));
+        assertTrue(sketch.containsKey(KEY1));
+        assertFalse(sketch.isEmpty());
+        assertEquals(6, sketch.getTotalCount());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        sketch.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testErrorBound() {
+        for (final boolean conservativeUpdate : new boolean[]{true, false}) {
+            final CountMinSketchCountingMap<Integer> approximate =
+                    new CountMinSketchCountingMap<>(EPSILON, DELTA, conservativeUpdate);
+            final CountingMap<Integer> exact = new HashCountingMap<>();
+            final Random random = new Random(42);
+            for (int i = 0; i < 100_000; i++) {
+                final int key = random.nextInt(20_000);
+                approximate.incrementCount(key);
+                exact.incrementCount(key);
+            }
+
+            final double maximumError = EPSILON * approximate.getTotalCount();
+            int keysOverBound = 0;
+            for (int key = 0; key < 20_000; key++) {
+                final int estimate = approximate.getCount(key);
+                assertTrue(estimate >= exact.getCount(key));
+                if (estimate - exact.getCount(key) > maximumError) {
+                    keysOverBound++;
+                }
+            }
+            assertTrue(keysOverBound <= DELTA * 20_000);
+        }
+    }
+
+    @Test
+    public void testMergeCountsWithSketch() {
+        final CountMinSketchCountingMap<String> other = new CountMinSketchCountingMap<>(EPSILON, DELTA);
+        sketch.incrementCount(KEY1, 3);
+        other.incrementCount(KEY1, 4);
+        other.incrementCount(KEY2, 2);
+
+        sketch.mergeCounts(other);
+        assertEquals(7, sketch.getCount(KEY1));
+        assertEquals(2, sketch.getCount(KEY2));
+        assertEquals(9, sketch.getTotalCount());
+    }
+
+    @Test
+    public void testMergeCountsWithExactMap() {
+        final CountingMap<String> other = new HashCountingMap<>();
+        other.incrementCount(KEY1, 4);
+
+        sketch.mergeCounts(other);
+        assertEquals(4, sketch.getCount(KEY1));
+        assertTrue(sketch.subsumes(other));
+    }
+
+    @Test
+    public void testMergeCountsWithDifferentShape() {
+        exception.expect(IllegalArgumentException.class);
+        sketch.mergeCounts(new CountMinSketchCountingMap<String>(EPSILON * 2, DELTA));
+    }
+
+    @Test
+    public void testGetCountsUnsupported() {
+        exception.expect(UnsupportedOperationException.class);
+        sketch.getCounts();
+    }
+
+    @Test
+    public void testSizeUnsupported() {
+        exception.expect(UnsupportedOperationException.class);
+        sketch.size();
+    }
+
+    @Test
+    public void testExtremumQueriesUnsupported() {
+        exception.expect(UnsupportedOperationException.class);
+        sketch.getKeyWithHighestCount();
+    }
+
+    @Test
+    public void testSetCountUnsupported() {
+        exception.expect(UnsupportedOperationException.class);
+        sketch.setCount("key", 1);
+    }
+}
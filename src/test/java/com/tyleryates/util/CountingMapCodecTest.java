@@ -0,0 +1,193 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link CountingMapCodec}.
+ */
+@SuppressWarnings("JavaDoc")
+public class CountingMapCodecTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final CountingMap<String> countingMap = new HashCountingMap<>();
+        countingMap.incrementCount(KEY1, 300);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 0);
+
+        final CountingMapCodec<String> codec = new CountingMapCodec<>(KeyCodecs.strings());
+        assertEquals(ImmutableMap.of(KEY1, 300, KEY2, 1, KEY3, 0), roundTrip(codec, countingMap).getCounts());
+    }
+
+    @Test
+    public void testRoundTripSortedByCount() throws Exception {
+        final CountingMap<Integer> countingMap = randomCountingMap();
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers(), true);
+        assertEquals(countingMap.getCounts(), roundTrip(codec, countingMap).getCounts());
+    }
+
+    @Test
+    public void testRoundTripSortedByCountFromBuckets() throws Exception {
+        final CountingMap<Integer> countingMap = randomCountingMap();
+        final CountingMap<Integer> bucketMap = new BucketCountingMap<>();
+        bucketMap.mergeCounts(countingMap);
+
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers(), true);
+        assertEquals(countingMap.getCounts(), roundTrip(codec, bucketMap).getCounts());
+        assertEquals(write(codec, countingMap).length, write(codec, bucketMap).length);
+    }
+
+    @Test
+    public void testStringsRejectUnpairedSurrogate() {
+        exception.expect(IllegalArgumentException.class);
+        KeyCodecs.strings().encode("key\ud800", ByteBuffer.allocate(16));
+    }
+
+    @Test
+    public void testSortedByCountIsSmaller() throws Exception {
+        final CountingMap<Integer> countingMap = new HashCountingMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            countingMap.incrementCount(i, 100_000 + random.nextInt(1_000));
+        }
+        final int unsortedLength = write(new CountingMapCodec<>(KeyCodecs.integers()), countingMap).length;
+        final int sortedLength = write(new CountingMapCodec<>(KeyCodecs.integers(), true), countingMap).length;
+        assertTrue(sortedLength < unsortedLength);
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws Exception {
+        final CountingMapCodec<String> codec = new CountingMapCodec<>(KeyCodecs.strings());
+        assertTrue(roundTrip(codec, new HashCountingMap<>()).isEmpty());
+    }
+
+    @Test
+    public void testRoundTripWithSmallBuffer() throws Exception {
+        final String longKey = Strings.repeat("x", 100);
+        final CountingMap<String> countingMap = new HashCountingMap<>();
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(longKey, 7);
+
+        final CountingMapCodec<String> codec = new CountingMapCodec<>(KeyCodecs.strings(), false, 16);
+        final byte[] bytes = write(codec, countingMap);
+        final InputStream trickle = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        final CountingMap<String> result = codec.read(Channels.newChannel(trickle), size -> new BucketCountingMap<>());
+        assertEquals(ImmutableMap.of(KEY1, 5, longKey, 7), result.getCounts());
+    }
+
+    @Test
+    public void testReadTruncated() throws Exception {
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers());
+        final byte[] bytes = write(codec, randomCountingMap());
+        exception.expect(EOFException.class);
+        codec.read(Channels.newChannel(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+    }
+
+    @Test
+    public void testReadNotASnapshot() throws Exception {
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers());
+        exception.expect(IOException.class);
+        codec.read(Channels.newChannel(new ByteArrayInputStream(new byte[16])));
+    }
+
+    @Test
+    public void testReadNegativeSize() throws Exception {
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers());
+        exception.expect(IOException.class);
+        read(codec, -1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+    }
+
+    @Test
+    public void testReadCorruptStringLength() throws Exception {
+        final CountingMapCodec<String> codec = new CountingMapCodec<>(KeyCodecs.strings());
+        exception.expect(EOFException.class);
+        read(codec, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 'k', 1);
+    }
+
+    @Test
+    public void testReadMalformedStringLength() throws Exception {
+        final CountingMapCodec<String> codec = new CountingMapCodec<>(KeyCodecs.strings());
+        exception.expect(IOException.class);
+        exception.expectCause(instanceOf(IllegalArgumentException.class));
+        read(codec, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01, 'k', 1);
+    }
+
+    @Test
+    public void testReadNegativeCount() throws Exception {
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers());
+        exception.expect(IOException.class);
+        read(codec, 1, 0, 0, 0, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+    }
+
+    @Test
+    public void testReadOverflowingCountDelta() throws Exception {
+        final CountingMapCodec<Integer> codec = new CountingMapCodec<>(KeyCodecs.integers(), true);
+        exception.expect(IOException.class);
+        read(codec, 2, 0, 0, 0, 1, 2, 0, 0, 0, 2, 0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+    }
+
+    private static CountingMap<Integer> randomCountingMap() {
+        final CountingMap<Integer> countingMap = new HashCountingMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            countingMap.incrementCount(random.nextInt(5_000));
+        }
+        return countingMap;
+    }
+
+    /**
+     * Reads a snapshot made of the header the given codec writes, the given size, and the given entry bytes.
+     */
+    private static <T> CountingMap<T> read(CountingMapCodec<T> codec, int size, int... entries) throws IOException {
+        final byte[] header = write(codec, new HashCountingMap<>());
+        final ByteBuffer snapshot = ByteBuffer.allocate(header.length + Integer.BYTES + entries.length);
+        snapshot.put(header, 0, header.length - 1);
+        Varints.writeUnsignedInt(snapshot, size);
+        for (final int b : entries) {
+            snapshot.put((byte) b);
+        }
+        return codec.read(Channels.newChannel(new ByteArrayInputStream(snapshot.array(), 0, snapshot.position())));
+    }
+
+    private static <T> byte[] write(CountingMapCodec<T> codec, CountingMap<T> countingMap) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(countingMap, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static <T> CountingMap<T> roundTrip(CountingMapCodec<T> codec, CountingMap<T> countingMap)
+            throws IOException {
+        return codec.read(Channels.newChannel(new ByteArrayInputStream(write(codec, countingMap))));
+    }
+}
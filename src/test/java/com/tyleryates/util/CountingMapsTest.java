@@ -0,0 +1,79 @@
+package com.tyleryates.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link CountingMaps}.
+ */
+@SuppressWarnings("JavaDoc")
+public class CountingMapsTest {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private List<Integer> keys;
+    private CountingMap<Integer> expected;
+
+    @Before
+    public void setup() {
+        keys = new ArrayList<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            keys.add(random.nextInt(1_000));
+        }
+        expected = new HashCountingMap<>(keys);
+    }
+
+    @Test
+    public void testParallelCountSpliterator() {
+        assertEquals(expected.getCounts(), CountingMaps.parallelCount(keys.spliterator()).getCounts());
+    }
+
+    @Test
+    public void testParallelCountSpliteratorWithSupplier() {
+        final OpenHashCountingMap<Integer> counts =
+                CountingMaps.parallelCount(keys.spliterator(), OpenHashCountingMap<Integer>::new);
+        assertEquals(expected.getCounts(), counts.getCounts());
+    }
+
+    @Test
+    public void testParallelCountUnsizedSpliterator() {
+        final Spliterator<Integer> unsized = Spliterators.spliteratorUnknownSize(keys.iterator(), 0);
+        assertEquals(expected.getCounts(), CountingMaps.parallelCount(unsized).getCounts());
+    }
+
+    @Test
+    public void testParallelCountEmptySpliterator() {
+        assertTrue(CountingMaps.parallelCount(new ArrayList<Integer>().spliterator()).isEmpty());
+    }
+
+    @Test
+    public void testParallelCountNullSpliterator() {
+        exception.expect(IllegalArgumentException.class);
+        CountingMaps.parallelCount((Spliterator<Integer>) null);
+    }
+
+    @Test
+    public void testParallelCountStream() {
+        assertEquals(expected.getCounts(), CountingMaps.parallelCount(keys.stream()).getCounts());
+    }
+
+    @Test
+    public void testToCountingMap() {
+        assertEquals(expected.getCounts(), keys.stream().collect(CountingMaps.<Integer>toCountingMap()).getCounts());
+        assertEquals(
+                expected.getCounts(),
+                keys.parallelStream().collect(CountingMaps.<Integer>toCountingMap()).getCounts());
+    }
+}
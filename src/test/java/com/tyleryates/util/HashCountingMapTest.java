@@ -10,9 +10,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -132,6 +135,32 @@ public class HashCountingMapTest {
         assertEquals(expectedOccurrences, countingMap.getCounts());
     }
 
+    @Test
+    public void testMergeCountsIntoEmptyMapKeepsExtrema() {
+        final CountingMap<String> otherMap = new HashCountingMap<>();
+        otherMap.incrementCount(KEY1, 3);
+        otherMap.incrementCount(KEY2, 1);
+        countingMap.mergeCounts(otherMap);
+
+        assertEquals(otherMap.getCounts(), countingMap.getCounts());
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY2);
+
+        countingMap.incrementCount(KEY2, 5);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1);
+        assertEquals(1, otherMap.getCount(KEY2));
+    }
+
+    @Test
+    public void testForEachCount() {
+        countingMap.incrementCounts(KEYS);
+
+        final Map<String, Integer> visited = new HashMap<>();
+        countingMap.forEachCount(visited::put);
+        assertEquals(EXPECTED_OCCURRENCES_OF_KEYS, visited);
+    }
+
     @Test
     public void testSize() {
         assertEquals(0, countingMap.size());
@@ -251,6 +280,237 @@ public class HashCountingMapTest {
         assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1);
     }
 
+    @Test
+    public void testTopK() {
+        assertThat(countingMap.topK(2)).isEmpty();
+
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.topK(0)).isEmpty();
+        assertThat(countingMap.topK(2)).containsExactly(KEY1, KEY3).inOrder();
+        assertThat(countingMap.topK(5)).containsExactly(KEY1, KEY3, KEY2).inOrder();
+    }
+
+    @Test
+    public void testTopKWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.topK(-1);
+    }
+
+    @Test
+    public void testBottomK() {
+        assertThat(countingMap.bottomK(2)).isEmpty();
+
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.bottomK(2)).containsExactly(KEY2, KEY3).inOrder();
+        assertThat(countingMap.bottomK(5)).containsExactly(KEY2, KEY3, KEY1).inOrder();
+    }
+
+    @Test
+    public void testTopKAndBottomKMatchSortedCounts() {
+        final Random random = new Random(0);
+        final List<Integer> counts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final int count = 1 + random.nextInt(10);
+            countingMap.incrementCount(KEY + i, count);
+            counts.add(count);
+        }
+        Collections.sort(counts);
+
+        assertThat(countsOf(countingMap.bottomK(20))).containsExactlyElementsIn(counts.subList(0, 20)).inOrder();
+        Collections.reverse(counts);
+        assertThat(countsOf(countingMap.topK(20))).containsExactlyElementsIn(counts.subList(0, 20)).inOrder();
+        assertThat(countsOf(countingMap.topK(500))).containsExactlyElementsIn(counts).inOrder();
+    }
+
+    private List<Integer> countsOf(List<String> keys) {
+        final List<Integer> counts = new ArrayList<>();
+        for (final String key : keys) {
+            counts.add(countingMap.getCount(key));
+        }
+        return counts;
+    }
+
+    @Test
+    public void testGetRank() {
+        assertEquals(0, countingMap.getRank(KEY1));
+
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 5);
+        assertEquals(1, countingMap.getRank(KEY1));
+        assertEquals(1, countingMap.getRank(KEY3));
+        assertEquals(3, countingMap.getRank(KEY2));
+        assertEquals(0, countingMap.getRank(KEY));
+    }
+
+    @Test
+    public void testDecrementCount() {
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(KEY2, 5);
+        countingMap.incrementCount(KEY3, 2);
+        assertEquals(3, countingMap.decrementCount(KEY1, 2));
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY2);
+
+        assertEquals(0, countingMap.decrementCount(KEY2, 10));
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY3);
+        assertFalse(countingMap.containsKey(KEY2));
+        assertThat(countingMap.getCounts()).doesNotContainKey(KEY2);
+
+        assertEquals(0, countingMap.decrementCount(KEY, 1));
+        assertFalse(countingMap.containsKey(KEY));
+    }
+
+    @Test
+    public void testDecrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.decrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testRemove() {
+        countingMap.incrementCount(KEY1, 5);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertEquals(5, countingMap.remove(KEY1));
+        assertEquals(0, countingMap.remove(KEY1));
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY3);
+
+        assertEquals(1, countingMap.remove(KEY2));
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY3);
+
+        assertEquals(3, countingMap.remove(KEY3));
+        assertTrue(countingMap.isEmpty());
+        assertThat(countingMap.getKeyWithHighestCount()).isAbsent();
+        assertThat(countingMap.getKeysWithLowestCount()).isEmpty();
+    }
+
+    @Test
+    public void testSetCount() {
+        assertEquals(0, countingMap.setCount(KEY1, 4));
+        assertEquals(4, countingMap.setCount(KEY1, 1));
+        assertEquals(0, countingMap.setCount(KEY2, 0));
+        assertEquals(0, countingMap.setCount(KEY3, 2));
+        assertEquals(ImmutableMap.of(KEY1, 1, KEY3, 2), countingMap.getCounts());
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY3);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1);
+
+        assertEquals(1, countingMap.setCount(KEY1, 0));
+        assertFalse(countingMap.containsKey(KEY1));
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY3);
+    }
+
+    @Test
+    public void testDecrementOnlyKeyKeepsHighestCount() {
+        countingMap.incrementCount(KEY1, 5);
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY1);
+        assertEquals(2, countingMap.decrementCount(KEY1, 3));
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1);
+
+        countingMap.incrementCount(KEY2, 4);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1);
+    }
+
+    @Test
+    public void testOverflowWraps() {
+        countingMap.incrementCount(KEY1, Integer.MAX_VALUE);
+        assertEquals(Integer.MIN_VALUE, countingMap.incrementCount(KEY1));
+    }
+
+    @Test
+    public void testOverflowSaturates() {
+        countingMap = new HashCountingMap<>(OverflowPolicy.SATURATE);
+        countingMap.incrementCount(KEY1, Integer.MAX_VALUE - 1);
+        countingMap.incrementCount(KEY2, 5);
+        assertEquals(Integer.MAX_VALUE, countingMap.incrementCount(KEY1, 10));
+        assertEquals(Integer.MAX_VALUE, countingMap.incrementCount(KEY1));
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY1);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+    }
+
+    @Test
+    public void testOverflowThrows() {
+        countingMap = new HashCountingMap<>(OverflowPolicy.THROW);
+        countingMap.incrementCount(KEY1, Integer.MAX_VALUE);
+        try {
+            countingMap.incrementCount(KEY1);
+            throw new AssertionError("Expected an ArithmeticException");
+        } catch (ArithmeticException e) {
+            assertEquals(Integer.MAX_VALUE, countingMap.getCount(KEY1));
+        }
+    }
+
+    @Test
+    public void testConstructorWithNullOverflowPolicy() {
+        exception.expect(IllegalArgumentException.class);
+        new HashCountingMap<String>((OverflowPolicy) null);
+    }
+
+    @Test
+    public void testSetCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.setCount(KEY1, -1);
+    }
+
+    @Test
+    public void testRandomUpdatesMatchBucketCountingMap() {
+        final CountingMap<Integer> actual = new HashCountingMap<>();
+        final CountingMap<Integer> expected = new BucketCountingMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            final int key = random.nextInt(50);
+            final int count = random.nextInt(4);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.incrementCount(key, count), actual.incrementCount(key, count));
+                    break;
+                case 1:
+                    assertEquals(expected.decrementCount(key, count), actual.decrementCount(key, count));
+                    break;
+                case 2:
+                    assertEquals(expected.setCount(key, count), actual.setCount(key, count));
+                    break;
+                default:
+                    assertEquals(expected.remove(key), actual.remove(key));
+                    break;
+            }
+            if (i % 10 == 0) {
+                assertEquals(expected.getKeysWithHighestCount(), actual.getKeysWithHighestCount());
+                assertEquals(expected.getKeysWithLowestCount(), actual.getKeysWithLowestCount());
+            }
+        }
+        assertEquals(expected.getCounts(), actual.getCounts());
+    }
+
+    @Test
+    public void testAllCountsMatchStopsAtFirstFailure() {
+        final HashCountingMap<String> map = new HashCountingMap<>();
+        map.incrementCount(KEY1, 1);
+        map.incrementCount(KEY2, 2);
+        map.incrementCount(KEY3, 3);
+        final int[] visited = {0};
+        assertFalse(map.allCountsMatch((key, count) -> ++visited[0] < 0));
+        assertEquals(1, visited[0]);
+        assertTrue(map.allCountsMatch((key, count) -> count == map.getCount(key)));
+    }
+
+    @Test
+    public void testSubsumesOtherType() {
+        final CountingMap<String> otherMap = new OpenHashCountingMap<>();
+        otherMap.incrementCount(KEY1, 2);
+        otherMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY1, 2);
+        assertFalse(countingMap.subsumes(otherMap));
+        countingMap.incrementCount(KEY2, 3);
+        assertTrue(countingMap.subsumes(otherMap));
+    }
+
     @Test
     public void testSubsumesEmpty() {
         assertTrue(countingMap.subsumes(new HashCountingMap<>()));
@@ -7,7 +7,13 @@ import org.junit.rules.ExpectedException;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -36,6 +42,8 @@ public class IntegersTest {
                 return (int) invocationOnMock.getArguments()[0] - 1;
             }
         });
+        // Ranges wider than Random.nextInt(int) can take draw 32 random bits instead, and all ones is the largest draw
+        when(MAX_RANDOM.nextInt()).thenReturn(-1);
 
         MIN_RANDOM = mock(Random.class);
         when(MIN_RANDOM.nextInt(anyInt())).thenReturn(0);
@@ -120,7 +128,13 @@ public class IntegersTest {
     @Test
     public void testRandomIntNullRandom() {
         exception.expect(IllegalArgumentException.class);
-        Integers.randomInt(0, 1, null);
+        Integers.randomInt(0, 1, (Random) null);
+    }
+
+    @Test
+    public void testRandomIntNullSplittableRandom() {
+        exception.expect(IllegalArgumentException.class);
+        Integers.randomInt(0, 1, (SplittableRandom) null);
     }
 
     @Test
@@ -131,4 +145,263 @@ public class IntegersTest {
         assertEquals(0, Integers.randomInt(0, Integer.MAX_VALUE, MIN_RANDOM));
         assertEquals(Integer.MIN_VALUE, Integers.randomInt(Integer.MIN_VALUE, Integer.MAX_VALUE, MIN_RANDOM));
     }
+
+    @Test
+    public void testRandomIntWithRandom() {
+        final Random random = new Random(42);
+        final Random sameRandom = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(sameRandom.nextInt(11) + 10, Integers.randomInt(10, 20, random));
+        }
+        // Ranges wider than Random.nextInt(int) can take are allowed and cover both signs
+        boolean negative = false;
+        boolean positive = false;
+        for (int i = 0; i < 1_000; i++) {
+            final int n = Integers.randomInt(Integer.MIN_VALUE / 2, Integer.MAX_VALUE, random);
+            assertTrue(n >= Integer.MIN_VALUE / 2);
+            negative |= n < 0;
+            positive |= n > 0;
+        }
+        assertTrue(negative && positive);
+        assertEquals(new Random(7).nextInt() + Integer.MIN_VALUE,
+                Integers.randomInt(Integer.MIN_VALUE, Integer.MAX_VALUE, new Random(7)));
+    }
+
+    @Test
+    public void testRandomIntWithinBounds() {
+        for (int i = 0; i < 1_000; i++) {
+            final int n = Integers.randomInt(-3, 3);
+            assertTrue(n >= -3 && n <= 3);
+        }
+        // The full range of int is allowed and covers both signs
+        boolean negative = false;
+        boolean positive = false;
+        for (int i = 0; i < 1_000; i++) {
+            final int n = Integers.randomInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            negative |= n < 0;
+            positive |= n > 0;
+        }
+        assertTrue(negative && positive);
+    }
+
+    @Test
+    public void testRandomIntWithSplittableRandom() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final SplittableRandom sameRandom = new SplittableRandom(42);
+        for (int i = 0; i < 1_000; i++) {
+            final int n = Integers.randomInt(10, 20, random);
+            assertTrue(n >= 10 && n <= 20);
+            assertEquals(n, Integers.randomInt(10, 20, sameRandom));
+        }
+        // Over the full range of int every 32 random bits map to a distinct result without being rejected
+        assertEquals(new SplittableRandom(7).nextInt() + Integer.MIN_VALUE,
+                Integers.randomInt(Integer.MIN_VALUE, Integer.MAX_VALUE, new SplittableRandom(7)));
+    }
+
+    @Test
+    public void testRandomIntIsUniform() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final int[] counts = new int[10];
+        for (int i = 0; i < 100_000; i++) {
+            counts[Integers.randomInt(0, 9, random)]++;
+        }
+        for (final int count : counts) {
+            assertTrue(Math.abs(count - 10_000) < 500);
+        }
+    }
+
+    @Test
+    public void testRandomIntRejectsBiasedProducts() {
+        // With a span of 3 * 2^30 a quarter of all products fall below the rejection threshold and must be redrawn,
+        // so the upper part of the range is drawn exactly as often as the lower part
+        final SplittableRandom random = new SplittableRandom(42);
+        final int lowerBound = Integer.MIN_VALUE;
+        final int upperBound = Integer.MIN_VALUE + 3 * (1 << 30) - 1;
+        final int[] thirds = new int[3];
+        for (int i = 0; i < 30_000; i++) {
+            final long offset = (long) Integers.randomInt(lowerBound, upperBound, random) - lowerBound;
+            thirds[(int) (offset >> 30)]++;
+        }
+        for (final int count : thirds) {
+            assertTrue(Math.abs(count - 10_000) < 500);
+        }
+    }
+
+    @Test
+    public void testFillRandomInts() {
+        final int[] array = new int[1_000];
+        Integers.fillRandomInts(array, 5, 8);
+        for (final int n : array) {
+            assertTrue(n >= 5 && n <= 8);
+        }
+
+        final int[] seeded = new int[100];
+        final int[] sameSeeded = new int[100];
+        Integers.fillRandomInts(seeded, 0, 1_000_000, new SplittableRandom(42));
+        Integers.fillRandomInts(sameSeeded, 0, 1_000_000, new SplittableRandom(42));
+        assertTrue(Arrays.equals(seeded, sameSeeded));
+    }
+
+    @Test
+    public void testFillRandomIntsNullArray() {
+        exception.expect(IllegalArgumentException.class);
+        Integers.fillRandomInts(null, 0, 1);
+    }
+
+    @Test
+    public void testRandomInts() {
+        assertEquals(10_000, Integers.randomInts(10_000, -1, 1).parallel().filter(n -> n >= -1 && n <= 1).count());
+        assertEquals(3, Integers.randomInts(100_000, -1, 1).parallel().distinct().count());
+        assertEquals(0, Integers.randomInts(0, 0, 1).count());
+    }
+
+    @Test
+    public void testRandomIntsIllegalBound() {
+        exception.expect(IllegalArgumentException.class);
+        Integers.randomInts(10, 1, 1);
+    }
+
+    private static final int[] EDGE_VALUES = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -2, -1, 0, 1, 2,
+            Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+
+    @Test
+    public void testProperty() {
+        final int[] values = Arrays.copyOf(EDGE_VALUES, EDGE_VALUES.length + 1_000);
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int i = EDGE_VALUES.length; i < values.length; i++) {
+            values[i] = random.nextInt();
+        }
+        for (final int n : values) {
+            assertEquals(Integers.isPositive(n), Integers.Property.POSITIVE.test(n));
+            assertEquals(Integers.isNegative(n), Integers.Property.NEGATIVE.test(n));
+            assertEquals(Integers.isNonNegative(n), Integers.Property.NON_NEGATIVE.test(n));
+            assertEquals(Integers.isNonPositive(n), Integers.Property.NON_POSITIVE.test(n));
+            assertEquals(n % 2 == 0, Integers.Property.EVEN.test(n));
+            assertEquals(n % 2 != 0, Integers.Property.ODD.test(n));
+        }
+    }
+
+    @Test
+    public void testCount() {
+        assertEquals(4, Integers.count(EDGE_VALUES, Integers.Property.NEGATIVE));
+        assertEquals(4, Integers.count(EDGE_VALUES, Integers.Property.POSITIVE));
+        assertEquals(5, Integers.count(EDGE_VALUES, Integers.Property.EVEN));
+        assertEquals(0, Integers.count(new int[0], Integers.Property.ODD));
+        for (final Integers.Property property : Integers.Property.values()) {
+            for (final IntBuffer buffer : buffers(EDGE_VALUES)) {
+                assertEquals(Integers.count(EDGE_VALUES, property), Integers.count(buffer, property));
+                assertEquals(0, buffer.position());
+            }
+        }
+    }
+
+    @Test
+    public void testCountNullProperty() {
+        exception.expect(IllegalArgumentException.class);
+        Integers.count(EDGE_VALUES, null);
+    }
+
+    @Test
+    public void testFilter() {
+        final int[] destination = new int[EDGE_VALUES.length];
+        assertEquals(4, Integers.filter(EDGE_VALUES, Integers.Property.POSITIVE, destination));
+        assertTrue(Arrays.equals(new int[]{1, 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE},
+                Arrays.copyOf(destination, 4)));
+
+        final int[] inPlace = EDGE_VALUES.clone();
+        assertEquals(4, Integers.filter(inPlace, Integers.Property.ODD, inPlace));
+        assertTrue(Arrays.equals(new int[]{Integer.MIN_VALUE + 1, -1, 1, Integer.MAX_VALUE},
+                Arrays.copyOf(inPlace, 4)));
+
+        for (final Integers.Property property : Integers.Property.values()) {
+            final int[] expected = Arrays.stream(EDGE_VALUES).filter(property).toArray();
+            for (final IntBuffer buffer : buffers(EDGE_VALUES)) {
+                for (final IntBuffer target : new IntBuffer[]{IntBuffer.allocate(20),
+                        ByteBuffer.allocateDirect(80).asIntBuffer()}) {
+                    target.put(7);
+                    assertEquals(expected.length, Integers.filter(buffer, property, target));
+                    assertEquals(expected.length + 1, target.position());
+                    final int[] actual = new int[expected.length];
+                    ((IntBuffer) target.flip().position(1)).get(actual);
+                    assertTrue(Arrays.equals(expected, actual));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilterShortDestination() {
+        exception.expect(IllegalArgumentException.class);
+        Integers.filter(EDGE_VALUES, Integers.Property.ODD, new int[EDGE_VALUES.length - 1]);
+    }
+
+    @Test
+    public void testPartition() {
+        for (final Integers.Property property : Integers.Property.values()) {
+            final int[] values = EDGE_VALUES.clone();
+            final int count = Integers.partition(values, property);
+            assertPartitioned(EDGE_VALUES, values, count, property);
+
+            for (final IntBuffer buffer : writableBuffers(EDGE_VALUES)) {
+                assertEquals(count, Integers.partition(buffer, property));
+                assertEquals(0, buffer.position());
+                final int[] partitioned = new int[EDGE_VALUES.length];
+                buffer.duplicate().get(partitioned);
+                assertPartitioned(EDGE_VALUES, partitioned, count, property);
+            }
+        }
+    }
+
+    @Test
+    public void testMask() {
+        final int[] values = new int[2_500];
+        Integers.fillRandomInts(values, -100, 100, new SplittableRandom(42));
+        for (final Integers.Property property : Integers.Property.values()) {
+            final BitSet mask = Integers.mask(values, property);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(property.test(values[i]), mask.get(i));
+            }
+            assertEquals(Integers.count(values, property), mask.cardinality());
+            // More values than fit in one chunk, so buffers without an array are read in several chunks
+            for (final IntBuffer buffer : buffers(values)) {
+                assertEquals(mask, Integers.mask(buffer, property));
+                assertEquals(mask.cardinality(), Integers.count(buffer, property));
+            }
+        }
+        assertTrue(Integers.mask(new int[0], Integers.Property.ODD).isEmpty());
+    }
+
+    private static void assertPartitioned(int[] original, int[] partitioned, int count, IntPredicate property) {
+        assertEquals(Arrays.stream(original).filter(property).count(), count);
+        for (int i = 0; i < partitioned.length; i++) {
+            assertEquals(i < count, property.test(partitioned[i]));
+        }
+        final int[] sortedOriginal = original.clone();
+        final int[] sortedPartitioned = partitioned.clone();
+        Arrays.sort(sortedOriginal);
+        Arrays.sort(sortedPartitioned);
+        assertTrue(Arrays.equals(sortedOriginal, sortedPartitioned));
+    }
+
+    /**
+     * Returns buffers of the given values with and without an accessible array, including one that is a slice of a
+     * larger array and a read-only one.
+     */
+    private static IntBuffer[] buffers(int[] values) {
+        final IntBuffer[] writable = writableBuffers(values);
+        return new IntBuffer[]{writable[0], writable[1], writable[2], IntBuffer.wrap(values).asReadOnlyBuffer()};
+    }
+
+    private static IntBuffer[] writableBuffers(int[] values) {
+        final IntBuffer heap = IntBuffer.wrap(values.clone());
+
+        final IntBuffer larger = IntBuffer.allocate(values.length + 6);
+        larger.position(3);
+        final IntBuffer slice = larger.slice();
+        slice.put(values).flip();
+
+        final IntBuffer direct = ByteBuffer.allocateDirect(values.length * 4).asIntBuffer();
+        direct.put(values).flip();
+        return new IntBuffer[]{heap, slice, direct};
+    }
 }
@@ -0,0 +1,119 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link LongOpenHashCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class LongOpenHashCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+    private static final long LARGE_COUNT = 3L * Integer.MAX_VALUE;
+
+    private LongCountingMap<String> countingMap;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        countingMap = new LongOpenHashCountingMap<>();
+    }
+
+    @Test
+    public void testConstructorWithIterable() {
+        countingMap = new LongOpenHashCountingMap<>(ImmutableList.of(KEY1, KEY2, KEY1));
+        assertEquals(ImmutableMap.of(KEY1, 2L, KEY2, 1L), countingMap.getCounts());
+    }
+
+    @Test
+    public void testIncrementCountPastIntegerRange() {
+        assertEquals(1L, countingMap.incrementCount(KEY1));
+        assertEquals(Integer.MAX_VALUE + 1L, countingMap.incrementCount(KEY1, Integer.MAX_VALUE));
+        assertEquals(LARGE_COUNT, countingMap.incrementCount(KEY2, LARGE_COUNT));
+        assertEquals(0L, countingMap.incrementCount(KEY3, 0));
+        assertEquals(LARGE_COUNT, countingMap.getCount(KEY2));
+        assertEquals(0L, countingMap.getCount("missing"));
+        assertTrue(countingMap.containsKey(KEY3));
+        assertEquals(3, countingMap.size());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testIncrementCountWithNullKey() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(null);
+    }
+
+    @Test
+    public void testExtremumAndRankedQueries() {
+        assertThat(countingMap.getKeyWithHighestCount()).isAbsent();
+        assertThat(countingMap.getKeysWithLowestCount()).isEmpty();
+        assertTrue(countingMap.isEmpty());
+
+        countingMap.incrementCount(KEY1, LARGE_COUNT);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, LARGE_COUNT);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY3);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+        assertThat(countingMap.bottomK(1)).containsExactly(KEY2);
+        assertThat(countingMap.topK(3).get(2)).isEqualTo(KEY2);
+        assertEquals(1, countingMap.getRank(KEY1));
+        assertEquals(3, countingMap.getRank(KEY2));
+        assertEquals(0, countingMap.getRank("missing"));
+    }
+
+    @Test
+    public void testMergeCountsAndSubsumes() {
+        final LongCountingMap<String> otherMap = new LongOpenHashCountingMap<>();
+        otherMap.incrementCount(KEY1, LARGE_COUNT);
+        otherMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY1);
+        assertFalse(countingMap.subsumes(otherMap));
+
+        countingMap.mergeCounts(otherMap);
+        assertEquals(ImmutableMap.of(KEY1, LARGE_COUNT + 1, KEY2, 1L), countingMap.getCounts());
+        assertTrue(countingMap.subsumes(otherMap));
+        assertFalse(otherMap.subsumes(countingMap));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        final Map<Integer, Long> expected = new HashMap<>();
+        final LongCountingMap<Integer> actual = new LongOpenHashCountingMap<>(0);
+        final Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            final int key = random.nextInt(2_000);
+            final long countsToAdd = random.nextInt(Integer.MAX_VALUE);
+            expected.merge(key, countsToAdd, Long::sum);
+            assertEquals((long) expected.get(key), actual.incrementCount(key, countsToAdd));
+        }
+
+        final Map<Integer, Long> visited = new HashMap<>();
+        actual.forEachCount(visited::put);
+        assertEquals(expected, visited);
+        assertEquals(expected, actual.getCounts());
+    }
+}
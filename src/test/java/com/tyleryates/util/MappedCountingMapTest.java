@@ -0,0 +1,176 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link MappedCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class MappedCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+    private static final int KEY_WIDTH = 16;
+    private static final int CAPACITY = 100;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+    private MappedCountingMap<String> countingMap;
+
+    @Before
+    public void setup() throws Exception {
+        file = temporaryFolder.newFile().toPath();
+        countingMap = MappedCountingMap.create(file, KeyCodecs.strings(), KEY_WIDTH, CAPACITY);
+    }
+
+    @Test
+    public void testIncrementCount() {
+        assertTrue(countingMap.isEmpty());
+        assertEquals(0, countingMap.getCount(KEY1));
+        assertEquals(1, countingMap.incrementCount(KEY1));
+        assertEquals(11, countingMap.incrementCount(KEY1, 10));
+        assertEquals(0, countingMap.incrementCount(KEY2, 0));
+        assertEquals(11, countingMap.getCount(KEY1));
+        assertTrue(countingMap.containsKey(KEY2));
+        assertFalse(countingMap.containsKey(KEY3));
+        assertEquals(2, countingMap.size());
+        assertEquals(ImmutableMap.of(KEY1, 11, KEY2, 0), countingMap.getCounts());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testIncrementCountWithKeyWiderThanKeyWidth() {
+        assertEquals(0, countingMap.getCount("a key that is far too wide"));
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount("a key that is far too wide");
+    }
+
+    @Test
+    public void testIncrementCountWhenFull() throws Exception {
+        final MappedCountingMap<Integer> smallMap =
+                MappedCountingMap.create(temporaryFolder.newFile().toPath(), KeyCodecs.integers(), 4, 2);
+        smallMap.incrementCount(1);
+        smallMap.incrementCount(2);
+        smallMap.incrementCount(2);
+        exception.expect(IllegalStateException.class);
+        smallMap.incrementCount(3);
+    }
+
+    @Test
+    public void testExtremumQueries() {
+        assertThat(countingMap.getKeyWithHighestCount()).isAbsent();
+        assertThat(countingMap.getKeysWithLowestCount()).isEmpty();
+
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY3);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+        assertThat(countingMap.topK(1)).containsAnyOf(KEY1, KEY3);
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.incrementCount(KEY2);
+        countingMap.flush();
+
+        final MappedCountingMap<String> reopened = MappedCountingMap.open(file, KeyCodecs.strings());
+        assertEquals(KEY_WIDTH, reopened.getKeyWidth());
+        assertEquals(CAPACITY, reopened.getCapacity());
+        assertEquals(ImmutableMap.of(KEY1, 3, KEY2, 1), reopened.getCounts());
+
+        reopened.incrementCount(KEY3, 2);
+        assertEquals(2, reopened.getCount(KEY3));
+        assertEquals(3, reopened.size());
+    }
+
+    @Test
+    public void testReadOnly() throws Exception {
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.flush();
+
+        final MappedCountingMap<String> readOnly = MappedCountingMap.openReadOnly(file, KeyCodecs.strings());
+        assertEquals(3, readOnly.getCount(KEY1));
+
+        // Changes made through the writable mapping are visible to readers of the same file
+        countingMap.incrementCount(KEY1);
+        assertEquals(4, readOnly.getCount(KEY1));
+
+        exception.expect(UnsupportedOperationException.class);
+        readOnly.incrementCount(KEY1);
+    }
+
+    @Test
+    public void testOpenWrongFile() throws Exception {
+        final Path other = temporaryFolder.newFile().toPath();
+        Files.write(other, new byte[64]);
+        exception.expect(IllegalArgumentException.class);
+        MappedCountingMap.open(other, KeyCodecs.strings());
+    }
+
+    @Test
+    public void testOpenTruncatedFile() throws Exception {
+        countingMap.incrementCount(KEY1);
+        countingMap.flush();
+        final Path truncated = temporaryFolder.newFile().toPath();
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        exception.expect(IOException.class);
+        MappedCountingMap.open(truncated, KeyCodecs.strings());
+    }
+
+    @Test
+    public void testOpenCorruptHeader() throws Exception {
+        final Path corrupt = temporaryFolder.newFile().toPath();
+        final byte[] bytes = Files.readAllBytes(file);
+        // Claim a key width far larger than the records in the file
+        ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE);
+        Files.write(corrupt, bytes);
+        exception.expect(IOException.class);
+        MappedCountingMap.openReadOnly(corrupt, KeyCodecs.strings());
+    }
+
+    @Test
+    public void testMatchesHashCountingMap() throws Exception {
+        final MappedCountingMap<Integer> actual =
+                MappedCountingMap.create(temporaryFolder.newFile().toPath(), KeyCodecs.integers(), 4, 1_000);
+        final CountingMap<Integer> expected = new HashCountingMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            final int key = random.nextInt(1_000);
+            assertEquals(expected.incrementCount(key), actual.incrementCount(key));
+        }
+        assertEquals(expected.getCounts(), actual.getCounts());
+        assertEquals(expected.getKeysWithHighestCount(), actual.getKeysWithHighestCount());
+        assertEquals(expected.getKeysWithLowestCount(), actual.getKeysWithLowestCount());
+    }
+}
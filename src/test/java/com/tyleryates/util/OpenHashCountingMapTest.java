@@ -0,0 +1,172 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link OpenHashCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class OpenHashCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+
+    private CountingMap<String> countingMap;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        countingMap = new OpenHashCountingMap<>();
+    }
+
+    @Test
+    public void testConstructorWithIterable() {
+        countingMap = new OpenHashCountingMap<>(ImmutableList.of(KEY1, KEY2, KEY1));
+        assertEquals(ImmutableMap.of(KEY1, 2, KEY2, 1), countingMap.getCounts());
+    }
+
+    @Test
+    public void testConstructorWithNegativeSize() {
+        exception.expect(IllegalArgumentException.class);
+        new OpenHashCountingMap<String>(-1);
+    }
+
+    @Test
+    public void testClear() {
+        final OpenHashCountingMap<Integer> map = new OpenHashCountingMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.incrementCount(i, i + 1);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.getCount(99));
+        assertThat(map.getKeyWithHighestCount()).isAbsent();
+
+        assertEquals(2, map.incrementCount(7, 2));
+        assertEquals(1, map.incrementCount(8));
+        assertEquals(ImmutableMap.of(7, 2, 8, 1), map.getCounts());
+        assertThat(map.getKeyWithHighestCount()).hasValue(7);
+    }
+
+    @Test
+    public void testIncrementCount() {
+        assertEquals(0, countingMap.getCount(KEY1));
+        assertEquals(1, countingMap.incrementCount(KEY1));
+        assertEquals(11, countingMap.incrementCount(KEY1, 10));
+        assertEquals(11, countingMap.getCount(KEY1));
+        assertEquals(0, countingMap.incrementCount(KEY2, 0));
+        assertTrue(countingMap.containsKey(KEY2));
+        assertFalse(countingMap.containsKey(KEY3));
+        assertEquals(2, countingMap.size());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testIncrementCountWithNullKey() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(null);
+    }
+
+    @Test
+    public void testExtremumQueries() {
+        assertThat(countingMap.getKeyWithHighestCount()).isAbsent();
+        assertThat(countingMap.getKeyWithLowestCount()).isAbsent();
+        assertThat(countingMap.getKeysWithHighestCount()).isEmpty();
+        assertThat(countingMap.getKeysWithLowestCount()).isEmpty();
+
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY3, 3);
+        assertThat(countingMap.getKeyWithHighestCount()).isAnyOf(Optional.of(KEY1), Optional.of(KEY3));
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY3);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY2);
+
+        countingMap.incrementCount(KEY2, 5);
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY2);
+        assertThat(countingMap.getKeysWithLowestCount()).containsExactly(KEY1, KEY3);
+    }
+
+    @Test
+    public void testTopKAndBottomKMatchSortedCounts() {
+        final Random random = new Random(0);
+        final List<Integer> counts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final int count = 1 + random.nextInt(10);
+            countingMap.incrementCount("key" + i, count);
+            counts.add(count);
+        }
+        Collections.sort(counts);
+
+        assertThat(countsOf(countingMap.bottomK(20))).containsExactlyElementsIn(counts.subList(0, 20)).inOrder();
+        Collections.reverse(counts);
+        assertThat(countsOf(countingMap.topK(20))).containsExactlyElementsIn(counts.subList(0, 20)).inOrder();
+        assertThat(countsOf(countingMap.topK(500))).containsExactlyElementsIn(counts).inOrder();
+        assertThat(countingMap.topK(0)).isEmpty();
+    }
+
+    private List<Integer> countsOf(List<String> keys) {
+        final List<Integer> counts = new ArrayList<>();
+        for (final String key : keys) {
+            counts.add(countingMap.getCount(key));
+        }
+        return counts;
+    }
+
+    @Test
+    public void testMergeCountsAndSubsumesWithSameImplementation() {
+        final CountingMap<String> otherMap = new OpenHashCountingMap<>();
+        otherMap.incrementCount(KEY1, 3);
+        otherMap.incrementCount(KEY2, 1);
+        countingMap.incrementCount(KEY1);
+        assertFalse(countingMap.subsumes(otherMap));
+
+        countingMap.mergeCounts(otherMap);
+        assertEquals(ImmutableMap.of(KEY1, 4, KEY2, 1), countingMap.getCounts());
+        assertTrue(countingMap.subsumes(otherMap));
+        assertFalse(otherMap.subsumes(countingMap));
+    }
+
+    @Test
+    public void testMatchesHashCountingMapAcrossResizes() {
+        final CountingMap<Integer> expected = new HashCountingMap<>();
+        final CountingMap<Integer> actual = new OpenHashCountingMap<>(0);
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final int key = random.nextInt(5_000);
+            final int countsToAdd = random.nextInt(3);
+            assertEquals(expected.incrementCount(key, countsToAdd), actual.incrementCount(key, countsToAdd));
+        }
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getCounts(), actual.getCounts());
+        assertEquals(expected.getKeysWithHighestCount(), actual.getKeysWithHighestCount());
+        assertEquals(expected.getKeysWithLowestCount(), actual.getKeysWithLowestCount());
+        assertTrue(actual.subsumes(expected));
+        assertTrue(expected.subsumes(actual));
+    }
+}
@@ -0,0 +1,144 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link SlidingWindowCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class SlidingWindowCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private FakeTicker ticker;
+    private SlidingWindowCountingMap<String> countingMap;
+
+    @Before
+    public void setup() {
+        ticker = new FakeTicker();
+        countingMap = new SlidingWindowCountingMap<>(5, TimeUnit.MINUTES, 5, ticker);
+    }
+
+    @Test
+    public void testIncrementCount() {
+        assertEquals(1, countingMap.incrementCount(KEY1));
+        assertEquals(4, countingMap.incrementCount(KEY1, 3));
+        assertEquals(0, countingMap.incrementCount(KEY2, 0));
+        assertEquals(ImmutableMap.of(KEY1, 4, KEY2, 0), countingMap.getCounts());
+    }
+
+    @Test
+    public void testIncrementCountWithNegativeNumber() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(KEY1, -1);
+    }
+
+    @Test
+    public void testIncrementCountWithNullKey() {
+        exception.expect(IllegalArgumentException.class);
+        countingMap.incrementCount(null);
+    }
+
+    @Test
+    public void testCountsExpire() {
+        countingMap.incrementCount(KEY1, 3);
+        ticker.advance(2, TimeUnit.MINUTES);
+        countingMap.incrementCount(KEY1, 2);
+        countingMap.incrementCount(KEY2, 4);
+        assertEquals(5, countingMap.getCount(KEY1));
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY1);
+
+        ticker.advance(3, TimeUnit.MINUTES);
+        assertEquals(2, countingMap.getCount(KEY1));
+        assertEquals(4, countingMap.getCount(KEY2));
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY2);
+        assertEquals(ImmutableList.of(KEY2, KEY1), countingMap.topK(2));
+
+        ticker.advance(2, TimeUnit.MINUTES);
+        assertTrue(countingMap.isEmpty());
+        assertFalse(countingMap.containsKey(KEY1));
+        assertEquals(0, countingMap.getRank(KEY2));
+    }
+
+    @Test
+    public void testCountsExpireAfterLongGap() {
+        countingMap.incrementCount(KEY1);
+        ticker.advance(1, TimeUnit.MINUTES);
+        countingMap.incrementCount(KEY2);
+        ticker.advance(1, TimeUnit.DAYS);
+        assertTrue(countingMap.isEmpty());
+
+        countingMap.incrementCount(KEY3);
+        assertEquals(ImmutableMap.of(KEY3, 1), countingMap.getCounts());
+    }
+
+    @Test
+    public void testKeysAddedWithZeroCountExpire() {
+        countingMap.incrementCount(KEY1, 0);
+        ticker.advance(2, TimeUnit.MINUTES);
+        countingMap.incrementCount(KEY2, 0);
+        countingMap.incrementCount(KEY2, 1);
+        assertTrue(countingMap.containsKey(KEY1));
+        assertEquals(0, countingMap.getCount(KEY1));
+
+        ticker.advance(4, TimeUnit.MINUTES);
+        assertFalse(countingMap.containsKey(KEY1));
+        assertEquals(ImmutableMap.of(KEY2, 1), countingMap.getCounts());
+
+        ticker.advance(2, TimeUnit.MINUTES);
+        assertTrue(countingMap.isEmpty());
+    }
+
+    @Test
+    public void testMatchesRecountOfWindow() {
+        final int[] history = new int[1_000];
+        for (int minute = 0; minute < history.length; minute++) {
+            history[minute] = minute % 7;
+            countingMap.incrementCount(KEY1, history[minute]);
+
+            int expected = 0;
+            for (int i = Math.max(0, minute - 4); i <= minute; i++) {
+                expected += history[i];
+            }
+            assertEquals(expected, countingMap.getCount(KEY1));
+            ticker.advance(1, TimeUnit.MINUTES);
+        }
+    }
+
+    @Test
+    public void testConstructorWithWindowShorterThanSlices() {
+        exception.expect(IllegalArgumentException.class);
+        new SlidingWindowCountingMap<String>(3, TimeUnit.NANOSECONDS, 5, ticker);
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos = -TimeUnit.HOURS.toNanos(1);
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        private void advance(long time, TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+}
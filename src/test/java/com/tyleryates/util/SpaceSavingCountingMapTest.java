@@ -0,0 +1,136 @@
+package com.tyleryates.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link SpaceSavingCountingMap}.
+ */
+@SuppressWarnings("JavaDoc")
+public class SpaceSavingCountingMapTest {
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+    private static final String KEY3 = "key3";
+
+    private SpaceSavingCountingMap<String> countingMap;
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setup() {
+        countingMap = new SpaceSavingCountingMap<>(2);
+    }
+
+    @Test
+    public void testIllegalCapacity() {
+        exception.expect(IllegalArgumentException.class);
+        new SpaceSavingCountingMap<String>(0);
+    }
+
+    @Test
+    public void testIncrementCountBelowCapacity() {
+        assertEquals(3, countingMap.incrementCount(KEY1, 3));
+        assertEquals(1, countingMap.incrementCount(KEY2));
+        assertEquals(2, countingMap.size());
+        assertEquals(0, countingMap.getError(KEY1));
+        assertThat(countingMap.getKeyWithHighestCount()).hasValue(KEY1);
+        assertThat(countingMap.getKeyWithLowestCount()).hasValue(KEY2);
+    }
+
+    @Test
+    public void testEviction() {
+        countingMap.incrementCount(KEY1, 3);
+        countingMap.incrementCount(KEY2);
+
+        assertEquals(3, countingMap.incrementCount(KEY3, 2));
+        assertFalse(countingMap.containsKey(KEY2));
+        assertTrue(countingMap.containsKey(KEY3));
+        assertEquals(2, countingMap.size());
+        assertEquals(1, countingMap.getError(KEY3));
+        assertEquals(2, countingMap.getGuaranteedCount(KEY3));
+        assertEquals(6, countingMap.getTotalCount());
+        assertThat(countingMap.getKeysWithHighestCount()).containsExactly(KEY1, KEY3);
+    }
+
+    @Test
+    public void testIncrementUntrackedKeyByZeroDoesNotEvict() {
+        final SpaceSavingCountingMap<String> single = new SpaceSavingCountingMap<>(1);
+        single.incrementCount(KEY1, 5);
+
+        assertEquals(0, single.incrementCount(KEY2, 0));
+        assertTrue(single.containsKey(KEY1));
+        assertFalse(single.containsKey(KEY2));
+        assertEquals(5, single.getCount(KEY1));
+        assertEquals(0, single.getError(KEY1));
+        assertEquals(5, single.getTotalCount());
+    }
+
+    @Test
+    public void testHeavyHittersAreTracked() {
+        final SpaceSavingCountingMap<Integer> summary = new SpaceSavingCountingMap<>(50);
+        final CountingMap<Integer> exact = new HashCountingMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Keys 0 through 9 make up about half of the stream
+            final int key = random.nextBoolean() ? random.nextInt(10) : 10 + random.nextInt(10_000);
+            summary.incrementCount(key);
+            exact.incrementCount(key);
+        }
+
+        assertTrue(summary.size() <= summary.getCapacity());
+        for (int key = 0; key < 10; key++) {
+            assertTrue(summary.containsKey(key));
+        }
+        assertThat(summary.topK(10)).containsExactlyElementsIn(exact.topK(10));
+        final long maximumError = summary.getTotalCount() / summary.getCapacity();
+        for (final Integer key : summary.getCounts().keySet()) {
+            assertTrue(summary.getCount(key) >= exact.getCount(key));
+            assertTrue(summary.getGuaranteedCount(key) <= exact.getCount(key));
+            assertTrue(summary.getError(key) <= maximumError);
+        }
+    }
+
+    @Test
+    public void testMergeCounts() {
+        final SpaceSavingCountingMap<Integer> left = new SpaceSavingCountingMap<>(20);
+        final SpaceSavingCountingMap<Integer> right = new SpaceSavingCountingMap<>(20);
+        final CountingMap<Integer> exact = new HashCountingMap<>();
+        final Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            final int key = random.nextBoolean() ? random.nextInt(5) : 5 + random.nextInt(5_000);
+            (i % 2 == 0 ? left : right).incrementCount(key);
+            exact.incrementCount(key);
+        }
+
+        left.mergeCounts(right);
+        assertEquals(50_000, left.getTotalCount());
+        assertTrue(left.size() <= left.getCapacity());
+        assertThat(left.topK(5)).containsExactlyElementsIn(exact.topK(5));
+        for (final Integer key : left.getCounts().keySet()) {
+            assertTrue(left.getCount(key) >= exact.getCount(key));
+            assertTrue(left.getGuaranteedCount(key) <= exact.getCount(key));
+        }
+    }
+
+    @Test
+    public void testMergeCountsWithExactMap() {
+        final CountingMap<String> other = new HashCountingMap<>();
+        other.incrementCount(KEY1, 2);
+        other.incrementCount(KEY2, 5);
+
+        countingMap.mergeCounts(other);
+        assertEquals(2, countingMap.getCount(KEY1));
+        assertEquals(5, countingMap.getCount(KEY2));
+        assertEquals(7, countingMap.getTotalCount());
+    }
+}
@@ -0,0 +1,91 @@
+package com.tyleryates.util;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link WordIndex}.
+ */
+@SuppressWarnings("JavaDoc")
+public class WordIndexTest {
+    private static final List<String> DICTIONARY =
+            ImmutableList.of("lot", "try", "let", "toy", "lottery", "lotteries", "tot", "rot", "tor", "", "lot");
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private WordIndex index;
+
+    @Before
+    public void setup() {
+        index = new WordIndex(DICTIONARY);
+    }
+
+    @Test
+    public void testFindMakeable() {
+        assertThat(index.findMakeable("lottery"))
+                .containsExactly("lot", "lot", "try", "let", "toy", "lottery", "tot", "rot", "tor", "");
+        assertThat(index.findMakeable("rto")).containsExactly("rot", "tor", "");
+        assertThat(index.findMakeable(new Word("tol"))).containsExactly("lot", "lot", "");
+        assertThat(index.findMakeable("")).containsExactly("");
+        assertThat(index.findMakeable("xyz")).containsExactly("");
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(DICTIONARY.size(), index.size());
+    }
+
+    @Test
+    public void testConstructorWithNullWord() {
+        exception.expect(IllegalArgumentException.class);
+        new WordIndex(Arrays.asList("lot", null));
+    }
+
+    @Test
+    public void testFindMakeableWithNullLetters() {
+        exception.expect(IllegalArgumentException.class);
+        index.findMakeable((String) null);
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        final Random random = new Random(42);
+        final List<String> dictionary = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            dictionary.add(randomLetters(random, 1 + random.nextInt(8)));
+        }
+        final WordIndex randomIndex = new WordIndex(dictionary);
+
+        for (int i = 0; i < 200; i++) {
+            final Word rack = new Word(randomLetters(random, 4 + random.nextInt(10)));
+            final List<String> expected = new ArrayList<>();
+            for (final String word : dictionary) {
+                if (rack.canMake(word)) {
+                    expected.add(word);
+                }
+            }
+            assertThat(randomIndex.findMakeable(rack)).containsExactlyElementsIn(expected);
+        }
+    }
+
+    private static String randomLetters(Random random, int length) {
+        final char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(10));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,79 @@
+package com.tyleryates.util;
+
+import com.google.common.base.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.text.Normalizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link WordNormalizer}.
+ */
+@SuppressWarnings("JavaDoc")
+public class WordNormalizerTest {
+    private static final String COMPOSED = "caf\u00e9";
+    private static final String DECOMPOSED = "cafe\u0301";
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testNone() {
+        assertSame(DECOMPOSED, WordNormalizer.none().normalize(DECOMPOSED));
+        assertEquals("Lottery", WordNormalizer.none().normalize("Lottery"));
+    }
+
+    @Test
+    public void testFoldCase() {
+        final WordNormalizer normalizer = new WordNormalizer(true, Optional.<Normalizer.Form>absent());
+        assertEquals("lottery", normalizer.normalize("LoTTery"));
+        assertEquals("strasse", normalizer.normalize("Stra\u00dfe"));
+        assertEquals(DECOMPOSED, normalizer.normalize(DECOMPOSED));
+    }
+
+    @Test
+    public void testNormalizationForm() {
+        final WordNormalizer composing = new WordNormalizer(false, Optional.of(Normalizer.Form.NFC));
+        assertEquals(COMPOSED, composing.normalize(DECOMPOSED));
+        assertEquals(COMPOSED, composing.normalize(COMPOSED));
+        assertEquals("Lottery", composing.normalize("Lottery"));
+
+        final WordNormalizer decomposing = new WordNormalizer(true, Optional.of(Normalizer.Form.NFD));
+        assertEquals(DECOMPOSED, decomposing.normalize("CAF\u00c9"));
+    }
+
+    @Test
+    public void testCachedFormIsReused() {
+        final WordNormalizer normalizer = new WordNormalizer(true, Optional.of(Normalizer.Form.NFC), 10);
+        assertSame(normalizer.normalize(DECOMPOSED), normalizer.normalize(DECOMPOSED));
+    }
+
+    @Test
+    public void testEmptyCache() {
+        final WordNormalizer normalizer = new WordNormalizer(true, Optional.of(Normalizer.Form.NFC), 0);
+        assertEquals(COMPOSED, normalizer.normalize("CAFE\u0301"));
+    }
+
+    @Test
+    public void testConstructorNullForm() {
+        exception.expect(IllegalArgumentException.class);
+        new WordNormalizer(true, null);
+    }
+
+    @Test
+    public void testConstructorNegativeCacheSize() {
+        exception.expect(IllegalArgumentException.class);
+        new WordNormalizer(true, Optional.<Normalizer.Form>absent(), -1);
+    }
+
+    @Test
+    public void testNormalizeNull() {
+        exception.expect(IllegalArgumentException.class);
+        WordNormalizer.none().normalize(null);
+    }
+}
@@ -1,12 +1,25 @@
 package com.tyleryates.util;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 @SuppressWarnings("JavaDoc")
@@ -28,6 +41,41 @@ public class WordTest {
         new Word(null);
     }
 
+    @Test
+    public void testOf() {
+        final Word interned = Word.of("interned lottery");
+        assertSame(interned, Word.of("interned lottery"));
+        assertSame(interned, Word.of(new String("interned lottery")));
+        assertNotSame(interned, Word.of("interned lotteries"));
+        assertEquals("interned lottery", interned.getString());
+        assertTrue(interned.canMake(word));
+    }
+
+    @Test
+    public void testGetInternCacheStats() {
+        final CacheStats before = Word.getInternCacheStats();
+        Word.of("uncached lottery");
+        Word.of("uncached lottery");
+        final CacheStats stats = Word.getInternCacheStats().minus(before);
+        assertEquals(2, stats.requestCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.hitCount());
+    }
+
+    @Test
+    public void testInternCacheSize() {
+        assertEquals(Word.DEFAULT_INTERN_CACHE_SIZE, Word.internCacheSize(null));
+        assertEquals(500_000, Word.internCacheSize(500_000));
+        assertEquals(0, Word.internCacheSize(0));
+        assertEquals(Word.DEFAULT_INTERN_CACHE_SIZE, Word.internCacheSize(-1));
+    }
+
+    @Test
+    public void testOfNull() {
+        exception.expect(IllegalArgumentException.class);
+        Word.of(null);
+    }
+
     @Test
     public void testGetWord() {
         assertEquals(STRING, word.getString());
@@ -45,4 +93,255 @@ public class WordTest {
         assertFalse(word.canMake("lotteries"));
         assertFalse(word.canMake("caring"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCanMakeWithCharactersOutsideLatin1() {
+        final Word unicodeWord = new Word("caf\u00e9 \u4e2d\u6587");
+        assertTrue(unicodeWord.canMake("\u00e9 \u6587"));
+        assertTrue(unicodeWord.canMake("fac"));
+        assertFalse(unicodeWord.canMake("face"));
+        assertFalse(unicodeWord.canMake("\u4e2d\u4e2d"));
+        assertFalse(word.canMake(unicodeWord));
+    }
+
+    @Test
+    public void testCanMakeWithCodePoints() {
+        // The halves of U+1F600 and U+1F900 recombine into U+1F500 unless code points are counted
+        final String faces = "a\ud83d\ude00\ud83e\udd00";
+        final String mixed = "\ud83d\udd00";
+        assertTrue(new Word(faces).canMake(mixed));
+
+        final Word codePointWord = new Word(faces, WordNormalizer.none());
+        assertEquals(faces, codePointWord.getString());
+        assertFalse(codePointWord.canMake(mixed));
+        assertFalse(codePointWord.canMake(new Word(mixed, WordNormalizer.none())));
+        assertTrue(codePointWord.canMake("\ud83e\udd00a"));
+        assertTrue(codePointWord.isAnagramOf(new Word("\ud83e\udd00\ud83d\ude00a", WordNormalizer.none())));
+    }
+
+    @Test
+    public void testCanMakeWithNormalizer() {
+        final WordNormalizer normalizer = new WordNormalizer(true, Optional.of(Normalizer.Form.NFC));
+        final Word normalized = new Word("Caf\u00e9", normalizer);
+        assertEquals("caf\u00e9", normalized.getString());
+        assertTrue(normalized.canMake("E\u0301C"));
+        assertTrue(normalized.canMake(new Word("FACE\u0301", normalizer)));
+        assertFalse(normalized.canMake("e"));
+        assertFalse(new Word("Caf\u00e9").canMake("E\u0301C"));
+    }
+
+    @Test
+    public void testWordConstructorNullNormalizer() {
+        exception.expect(IllegalArgumentException.class);
+        new Word(STRING, null);
+    }
+
+    @Test
+    public void testCanMakeNullString() {
+        exception.expect(IllegalArgumentException.class);
+        word.canMake((String) null);
+    }
+
+    @Test
+    public void testCountMissing() {
+        assertEquals(0, word.countMissing(word));
+        assertEquals(0, word.countMissing(new Word("lot")));
+        assertEquals(3, word.countMissing(new Word("lotteries")));
+        assertEquals(5, word.countMissing(new Word("caring")));
+        assertEquals(7, new Word("").countMissing(word));
+    }
+
+    @Test
+    public void testCanMakeWithWildcards() {
+        assertTrue(word.canMakeWithWildcards(new Word("lot"), 0));
+        assertFalse(word.canMakeWithWildcards(new Word("lotteries"), 0));
+        assertFalse(word.canMakeWithWildcards(new Word("lotteries"), 2));
+        assertTrue(word.canMakeWithWildcards(new Word("lotteries"), 3));
+        assertFalse(word.canMakeWithWildcards(new Word("caring"), 4));
+        assertTrue(word.canMakeWithWildcards(new Word("caring"), 5));
+        assertFalse(new Word("lot").canMakeWithWildcards(word, 3));
+        assertTrue(new Word("lot").canMakeWithWildcards(word, 4));
+    }
+
+    @Test
+    public void testCanMakeWithNegativeWildcards() {
+        exception.expect(IllegalArgumentException.class);
+        word.canMakeWithWildcards(word, -1);
+    }
+
+    @Test
+    public void testDifference() {
+        assertEquals("elry", word.difference(new Word("tot")).getString());
+        assertEquals("", new Word("tot").difference(word).getString());
+        assertEquals("o", new Word("toot").difference(word).getString());
+        assertEquals("", word.difference(word).getString());
+        assertEquals("eis", new Word("lotteries").difference(word).getString());
+    }
+
+    @Test
+    public void testUnion() {
+        final Word union = word.union(new Word("toast"));
+        assertEquals("aelorstty", union.getString());
+        assertTrue(union.canMake(word));
+        assertTrue(union.canMake("toast"));
+        assertEquals(word.getSignature(), new Word("").union(word).getString());
+    }
+
+    @Test
+    public void testIntersection() {
+        final Word intersection = word.intersection(new Word("toast"));
+        assertEquals("ott", intersection.getString());
+        assertEquals("ott", intersection.getSignature());
+        assertTrue(word.canMake(intersection));
+        assertEquals("r", word.intersection(new Word("caring")).getString());
+        assertEquals("", word.intersection(new Word("basin")).getString());
+    }
+
+    @Test
+    public void testSetOperationsKeepCodePoints() {
+        final Word faces = new Word("a\ud83d\ude00\ud83e\udd00", WordNormalizer.none());
+        final Word difference = faces.difference(new Word("a", WordNormalizer.none()));
+        assertEquals("\ud83d\ude00\ud83e\udd00", difference.getString());
+        assertFalse(difference.canMake("\ud83d\udd00"));
+    }
+
+    @Test
+    public void testDifferenceNull() {
+        exception.expect(IllegalArgumentException.class);
+        word.difference(null);
+    }
+
+    @Test
+    public void testGetSignature() {
+        assertEquals("elortty", word.getSignature());
+        assertEquals(word.getSignature(), new Word("tolerty").getSignature());
+        assertEquals("", new Word("").getSignature());
+        assertEquals(" acf\u00e9", new Word("caf\u00e9 ").getSignature());
+    }
+
+    @Test
+    public void testIsAnagramOf() {
+        assertTrue(word.isAnagramOf(word));
+        assertTrue(word.isAnagramOf(new Word("tolerty")));
+        assertFalse(word.isAnagramOf(new Word("lotter")));
+        assertFalse(new Word("lotter").isAnagramOf(word));
+    }
+
+    @Test
+    public void testIsAnagramOfNull() {
+        exception.expect(IllegalArgumentException.class);
+        word.isAnagramOf(null);
+    }
+
+    @Test
+    public void testGetLetterMask() {
+        assertEquals(Word.letterMaskOf(STRING), word.getLetterMask());
+        assertEquals(word.getLetterMask(), new Word("tolerty").getLetterMask());
+        assertEquals(0L, new Word("").getLetterMask());
+
+        // A word that the mask rejects can never be made, while one that passes may still lack a repeated letter
+        assertTrue((new Word("car").getLetterMask() & ~word.getLetterMask()) != 0);
+        assertFalse(word.canMake(new Word("car")));
+        assertEquals(0L, new Word("lotto").getLetterMask() & ~word.getLetterMask());
+        assertFalse(word.canMake(new Word("lotto")));
+    }
+
+    @Test
+    public void testLetterMaskOfWithCodePoints() {
+        final Word codePointWord = new Word("\ud83d\ude00x", WordNormalizer.none());
+        assertTrue(codePointWord.canMake("\ud83d\ude00"));
+        assertEquals(0L, Word.letterMaskOf("\ud83d\ude00", WordNormalizer.none()) & ~codePointWord.getLetterMask());
+        assertEquals(codePointWord.getLetterMask(), Word.letterMaskOf("\ud83d\ude00x", WordNormalizer.none()));
+
+        // The char mask matches words that count chars
+        final Word charWord = new Word("\ud83d\ude00x");
+        assertEquals(charWord.getLetterMask(), Word.letterMaskOf("\ud83d\ude00x"));
+        assertEquals(0L, Word.letterMaskOf("\ud83d\ude00") & ~charWord.getLetterMask());
+    }
+
+    @Test
+    public void testLetterMaskOfNormalizes() {
+        final WordNormalizer normalizer = new WordNormalizer(true, Optional.<Normalizer.Form>absent());
+        assertEquals(new Word("LOT", normalizer).getLetterMask(), Word.letterMaskOf("LoT", normalizer));
+        assertEquals(Word.letterMaskOf("lot"), Word.letterMaskOf("LOT", normalizer));
+    }
+
+    @Test
+    public void testLetterMaskOfNull() {
+        exception.expect(IllegalArgumentException.class);
+        Word.letterMaskOf(null);
+    }
+
+    @Test
+    public void testFilterMakeable() {
+        final List<Word> candidates = words("lot", "car", "lottery", "lotteries", "", "try", "lotto");
+        final BitSet makeable = word.filterMakeable(candidates);
+        assertEquals(bits(0, 2, 4, 5), makeable);
+        assertEquals(new BitSet(), word.filterMakeable(ImmutableList.<Word>of()));
+    }
+
+    @Test
+    public void testFilterMakeableMatrix() {
+        final Random random = new Random(17);
+        final List<Word> racks = new ArrayList<>();
+        final List<Word> candidates = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            racks.add(new Word(randomString(random, 3, 9)));
+            candidates.add(new Word(randomString(random, 0, 5)));
+        }
+
+        final List<BitSet> sequential = Word.filterMakeable(racks, candidates, false);
+        final List<BitSet> parallel = Word.filterMakeable(racks, candidates, true);
+        assertEquals(racks.size(), sequential.size());
+        assertEquals(sequential, parallel);
+        for (int r = 0; r < racks.size(); r++) {
+            assertEquals(racks.get(r).filterMakeable(candidates), sequential.get(r));
+            for (int c = 0; c < candidates.size(); c++) {
+                assertEquals(racks.get(r).canMake(candidates.get(c)), sequential.get(r).get(c));
+            }
+        }
+    }
+
+    @Test
+    public void testFilterMakeableNull() {
+        exception.expect(IllegalArgumentException.class);
+        word.filterMakeable(null);
+    }
+
+    @Test
+    public void testFilterMakeableNullCandidate() {
+        exception.expect(IllegalArgumentException.class);
+        word.filterMakeable(Arrays.asList(word, null));
+    }
+
+    @Test
+    public void testFilterMakeableMatrixNullRack() {
+        exception.expect(IllegalArgumentException.class);
+        Word.filterMakeable(Arrays.asList(word, null), words("lot"), false);
+    }
+
+    private static List<Word> words(String... strings) {
+        final List<Word> words = new ArrayList<>();
+        for (final String string : strings) {
+            words.add(new Word(string));
+        }
+        return words;
+    }
+
+    private static BitSet bits(int... indexes) {
+        final BitSet bits = new BitSet();
+        for (final int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    private static String randomString(Random random, int minLength, int maxLength) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = minLength + random.nextInt(maxLength - minLength + 1);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(6)));
+        }
+        return builder.toString();
+    }
+}